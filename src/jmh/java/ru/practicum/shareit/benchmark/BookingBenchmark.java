@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingBenchmark {
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public String state;
+
+    @Benchmark
+    public BookingPageDto bookingsForOwner(SeededApplication app) {
+        long ownerId = ThreadLocalRandom.current().nextLong(1, app.users + 1);
+        return app.inRequest(() -> app.getBean(BookingService.class).getBookingsForOwner(ownerId, state, null, null, false));
+    }
+
+    @Benchmark
+    public BookingPageDto bookingsForBooker(SeededApplication app) {
+        long bookerId = ThreadLocalRandom.current().nextLong(1, app.users + 1);
+        return app.inRequest(() -> app.getBean(BookingService.class).getAllBookings(bookerId, state, null, null, false));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingCreateBenchmark {
+
+    private final LocalDateTime firstSlot = LocalDateTime.now().plusYears(10);
+    private final AtomicLong slot = new AtomicLong();
+
+    @Benchmark
+    public BookingDto createBooking(SeededApplication app) throws ItemNotAvailableException {
+        long itemId = ThreadLocalRandom.current().nextLong(1, app.items + 1);
+        if (itemId % 10 == 0) {
+            itemId--;
+        }
+        long ownerId = itemId % app.users + 1;
+        long bookerId = ownerId % app.users + 1;
+        LocalDateTime start = firstSlot.plusHours(slot.getAndIncrement() * 2);
+
+        BookingDto request = new BookingDto();
+        request.setItemId(itemId);
+        request.setStart(start);
+        request.setEnd(start.plusHours(1));
+        return app.getBean(BookingService.class).createBooking(bookerId, request);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithDateDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemBenchmark {
+
+    @Benchmark
+    public List<ItemDto> searchByWord(SeededApplication app) {
+        String word = SeededApplication.WORDS[ThreadLocalRandom.current().nextInt(SeededApplication.WORDS.length)];
+        return app.inRequest(() -> app.getBean(ItemService.class).searchItems(word));
+    }
+
+    @Benchmark
+    public List<ItemDto> searchByNumber(SeededApplication app) {
+        String text = String.valueOf(ThreadLocalRandom.current().nextInt(1, app.items + 1));
+        return app.inRequest(() -> app.getBean(ItemService.class).searchItems(text));
+    }
+
+    @Benchmark
+    public List<ItemWithDateDto> itemsByOwner(SeededApplication app) {
+        long ownerId = ThreadLocalRandom.current().nextLong(1, app.users + 1);
+        return app.inRequest(() -> app.getBean(ItemService.class).getItemsByOwner(ownerId));
+    }
+
+    @Benchmark
+    public ItemWithDateDto itemById(SeededApplication app) {
+        long itemId = ThreadLocalRandom.current().nextLong(1, app.items + 1);
+        return app.inRequest(() -> app.getBean(ItemService.class).getItemById(1L, itemId));
+    }
+}
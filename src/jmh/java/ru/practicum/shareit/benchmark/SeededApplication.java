@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    static final String[] WORDS = {"дрель", "отвертка", "пила", "лестница", "палатка", "велосипед", "самокат",
+            "фотоаппарат", "проектор", "гитара"};
+
+    @Param("10000")
+    public int users;
+
+    @Param("100000")
+    public int items;
+
+    @Param("1000000")
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBeanProvider(InvertedIndexItemSearchEngine.class).ifAvailable(InvertedIndexItemSearchEngine::rebuild);
+
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public <T> T inRequest(Supplier<T> action) {
+        return readOnlyTransaction.execute(status -> action.get());
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        StringBuilder words = new StringBuilder("ARRAY[");
+        for (int i = 0; i < WORDS.length; i++) {
+            words.append(i == 0 ? "'" : ", '").append(WORDS[i]).append("'");
+        }
+        words.append("]");
+
+        jdbcTemplate.update("INSERT INTO users (id, name, email) "
+                + "SELECT x, 'user' || x, 'user' || x || '@mail.ru' FROM SYSTEM_RANGE(1, ?)", users);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) "
+                + "SELECT x, " + words + "[MOD(x, " + WORDS.length + ") + 1] || ' ' || x, "
+                + "'description of item ' || x, MOD(x, 10) <> 0, MOD(x, ?) + 1 FROM SYSTEM_RANGE(1, ?)",
+                users, items);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT x, DATEADD('HOUR', MOD(x * 7919, 48000) - 24000, LOCALTIMESTAMP), "
+                + "DATEADD('HOUR', MOD(x * 7919, 48000) - 24000 + MOD(x, 72) + 1, LOCALTIMESTAMP), "
+                + "MOD(x, ?) + 1, MOD(x * 31, ?) + 1, "
+                + "CASE MOD(x, 4) WHEN 0 THEN 'WAITING' WHEN 3 THEN 'REJECTED' ELSE 'APPROVED' END "
+                + "FROM SYSTEM_RANGE(1, ?)", items, users, bookings);
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) "
+                + "SELECT x, 'comment ' || x, MOD(x, ?) + 1, MOD(x * 31, ?) + 1, LOCALTIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, ?)", items, users, items / 2);
+        jdbcTemplate.update("INSERT INTO item_booking_summary (item_id, last_booking, next_booking) "
+                + "SELECT i.id, "
+                + "(SELECT MAX(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status <> 'REJECTED' "
+                + "AND b.start_date <= LOCALTIMESTAMP), "
+                + "(SELECT MIN(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status <> 'REJECTED' "
+                + "AND b.start_date > LOCALTIMESTAMP) "
+                + "FROM items i");
+
+        jdbcTemplate.execute("ALTER SEQUENCE users_seq RESTART WITH " + (users + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE items_seq RESTART WITH " + (items + 1));
+        jdbcTemplate.execute("ALTER TABLE bookings ALTER COLUMN id RESTART WITH " + (bookings + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE comments_seq RESTART WITH " + (items / 2 + 1));
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -1,17 +1,28 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.util.HeaderConstants;
 
+import java.io.OutputStream;
 import java.nio.file.AccessDeniedException;
 import java.util.List;
+import java.util.function.Consumer;
 
+@Validated
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -33,19 +44,60 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDto> getBookingById(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long userId,
-                                                     @PathVariable Long bookingId) throws AccessDeniedException {
-        return new ResponseEntity<>(bookingService.getBookingById(userId, bookingId), HttpStatus.OK);
+                                                     @PathVariable Long bookingId,
+                                                     WebRequest request) throws AccessDeniedException {
+        String eTag = bookingService.getBookingETag(userId, bookingId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return new ResponseEntity<>(bookingService.getBookingById(userId, bookingId), headers, HttpStatus.OK);
     }
 
     @GetMapping
     public ResponseEntity<List<BookingDto>> getAllBookings(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long userId,
-                                                           @RequestParam(defaultValue = "ALL") String state) {
-        return new ResponseEntity<>(bookingService.getAllBookings(userId, state), HttpStatus.OK);
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @RequestParam(required = false) BookingCursor cursor,
+                                                           @RequestParam(required = false) @Positive Integer size,
+                                                           @RequestParam(defaultValue = "false") boolean history) {
+        return toResponse(bookingService.getAllBookings(userId, state, cursor, size, history));
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingDto>> getBookingsForOwner(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long ownerId,
-                                                                @RequestParam(defaultValue = "ALL") String state) {
-        return new ResponseEntity<>(bookingService.getBookingsForOwner(ownerId, state), HttpStatus.OK);
+                                                                @RequestParam(defaultValue = "ALL") String state,
+                                                                @RequestParam(required = false) BookingCursor cursor,
+                                                                @RequestParam(required = false) @Positive Integer size,
+                                                                @RequestParam(defaultValue = "false") boolean history) {
+        return toResponse(bookingService.getBookingsForOwner(ownerId, state, cursor, size, history));
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                                @RequestParam(defaultValue = "ALL") String state,
+                                                                @RequestParam(defaultValue = "false") boolean history) {
+        return toNdjson(bookingService.exportBookings(userId, state, history));
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long ownerId,
+                                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                                        @RequestParam(defaultValue = "false") boolean history) {
+        return toNdjson(bookingService.exportBookingsForOwner(ownerId, state, history));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNext() != null) {
+            headers.set(HeaderConstants.X_NEXT_CURSOR, page.getNext());
+        }
+        return new ResponseEntity<>(page.getBookings(), headers, HttpStatus.OK);
+    }
+
+    private ResponseEntity<StreamingResponseBody> toNdjson(Consumer<OutputStream> writer) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return new ResponseEntity<>(writer::accept, headers, HttpStatus.OK);
     }
 }
\ No newline at end of file
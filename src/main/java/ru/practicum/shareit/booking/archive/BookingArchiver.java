@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.archive;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит бронирования, закончившиеся раньше чем shareit.booking-archive.horizon назад, из bookings
+ * в bookings_archive. Каждая пачка переносится в своей транзакции, так что bookings остаётся небольшой,
+ * а запросы по текущим и будущим бронированиям не просматривают историю.
+ * <p>
+ * На PostgreSQL пачка выбирается с FOR UPDATE SKIP LOCKED, и несколько узлов разбирают разные пачки.
+ * H2 рассчитан на один узел: выборка идёт без блокировок, параллельные архиваторы могут взять одну пачку.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-archive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class BookingArchiver {
+    private static final String COLUMNS = "id, start_date, end_date, item_id, booker_id, status, version";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${shareit.booking-archive.horizon:P90D}")
+    private Duration horizon;
+
+    @Value("${shareit.booking-archive.batch-size:1000}")
+    private int batchSize;
+
+    private TransactionTemplate transaction;
+    private String lockClause;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        String database = jdbcTemplate.getJdbcTemplate()
+                .execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        lockClause = "PostgreSQL".equals(database) ? " FOR UPDATE SKIP LOCKED" : "";
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-archive.interval:PT1H}",
+            fixedDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        int total = 0;
+        int moved;
+        do {
+            moved = transaction.execute(status -> moveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Перенесено в архив бронирований, закончившихся до {}: {}", cutoff, total);
+        }
+        return total;
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM bookings WHERE end_date < :cutoff ORDER BY end_date, id FETCH FIRST :limit ROWS ONLY"
+                        + lockClause,
+                new MapSqlParameterSource()
+                        .addValue("cutoff", Timestamp.valueOf(cutoff))
+                        .addValue("limit", batchSize),
+                Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.update("INSERT INTO bookings_archive (" + COLUMNS + ") "
+                + "SELECT " + COLUMNS + " FROM bookings WHERE id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM bookings WHERE id IN (:ids)", params);
+    }
+}
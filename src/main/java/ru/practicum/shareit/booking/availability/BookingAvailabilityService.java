@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш занятости вещей: для каждой вещи хранится дерево интервалов действующих бронирований
+ * (WAITING и APPROVED). Дерево загружается из БД при первом обращении и сбрасывается при смене статуса.
+ * Брони ещё не закоммиченных транзакций хранятся отдельно от кэша: загруженное заново дерево их не видит,
+ * поэтому ни сброс, ни вытеснение дерева не должны их терять. Проверка, загрузка дерева и перенос
+ * закоммиченной брони в дерево выполняются под блокировкой вещи.
+ * Гарантию между узлами дает ограничение исключения в БД (см. миграцию V3__booking_period_exclusion.sql).
+ */
+@Slf4j
+@Component
+public class BookingAvailabilityService {
+
+    private static final List<State> ACTIVE_STATUSES = List.of(State.WAITING, State.APPROVED);
+    private static final int LOCK_STRIPES = 256;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, IntervalTree> trees;
+    private final Map<Long, IntervalTree> pending = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public BookingAvailabilityService(BookingRepository bookingRepository,
+                                      @Value("${shareit.availability.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.trees = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, IntervalTree> eldest) {
+                return size() > maxItems;
+            }
+        });
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public void reserve(Long itemId, LocalDateTime start, LocalDateTime end) throws ItemNotAvailableException {
+        synchronized (lock(itemId)) {
+            IntervalTree tree = treeFor(itemId);
+            if (tree.overlaps(start, end) || overlapsPending(itemId, start, end)) {
+                throw new ItemNotAvailableException("Вещь с id=" + itemId + " уже забронирована на эти даты");
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                tree.insert(start, end);
+                return;
+            }
+            pending.computeIfAbsent(itemId, id -> new IntervalTree()).insert(start, end);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (lock(itemId)) {
+                    IntervalTree inFlight = pending.get(itemId);
+                    inFlight.remove(start, end);
+                    if (inFlight.size() == 0) {
+                        pending.remove(itemId);
+                    }
+                    IntervalTree tree = trees.get(itemId);
+                    if (status == STATUS_COMMITTED && tree != null && !tree.overlaps(start, end)) {
+                        tree.insert(start, end);
+                    }
+                }
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(itemId);
+                }
+            });
+        }
+        drop(itemId);
+    }
+
+    private void drop(Long itemId) {
+        synchronized (lock(itemId)) {
+            trees.remove(itemId);
+        }
+    }
+
+    private boolean overlapsPending(Long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree inFlight = pending.get(itemId);
+        return inFlight != null && inFlight.overlaps(start, end);
+    }
+
+    private Object lock(Long itemId) {
+        return locks[Math.floorMod(itemId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private IntervalTree treeFor(Long itemId) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree != null) {
+            return tree;
+        }
+
+        IntervalTree loaded = new IntervalTree();
+        for (Object[] period : bookingRepository.findPeriods(itemId, ACTIVE_STATUSES, LocalDateTime.now())) {
+            loaded.insert((LocalDateTime) period[0], (LocalDateTime) period[1]);
+        }
+        log.debug("Загружено {} бронирований вещи с id={} в кэш занятости", loaded.size(), itemId);
+
+        trees.put(itemId, loaded);
+        return loaded;
+    }
+}
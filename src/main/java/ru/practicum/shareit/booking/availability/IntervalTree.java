@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Дерево интервалов [start, end) на основе декартова дерева, дополненного максимальным концом поддерева.
+ * Вставка, удаление и проверка пересечения выполняются за O(log n). Не потокобезопасно.
+ */
+class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    void insert(LocalDateTime start, LocalDateTime end) {
+        Node[] parts = split(root, start, end);
+        root = merge(merge(parts[0], new Node(start, end)), parts[1]);
+        size++;
+    }
+
+    boolean remove(LocalDateTime start, LocalDateTime end) {
+        int before = size;
+        root = remove(root, start, end);
+        return size < before;
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Node remove(Node node, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, end, node);
+        if (cmp == 0) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, start, end);
+        } else {
+            node.right = remove(node.right, start, end);
+        }
+        return node.update();
+    }
+
+    private static Node[] split(Node node, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(start, end, node) <= 0) {
+            Node[] parts = split(node.left, start, end);
+            node.left = parts[1];
+            return new Node[]{parts[0], node.update()};
+        }
+        Node[] parts = split(node.right, start, end);
+        node.right = parts[0];
+        return new Node[]{node.update(), parts[1]};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static int compare(LocalDateTime start, LocalDateTime end, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : end.compareTo(node.end);
+    }
+
+    private static final class Node {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        private Node update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.State;
+
+public record BookingAccess(Long bookingId, Long itemId, Long ownerId, Long bookerId, State status) {
+
+    public boolean isOwnedBy(Long userId) {
+        return ownerId.equals(userId);
+    }
+
+    public boolean isVisibleTo(Long userId) {
+        return bookerId.equals(userId) || ownerId.equals(userId);
+    }
+}
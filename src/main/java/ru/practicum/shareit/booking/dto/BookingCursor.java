@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public record BookingCursor(LocalDateTime start, Long id) {
+
+    private static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static BookingCursor first() {
+        return FIRST;
+    }
+
+    public static BookingCursor decode(String value) {
+        String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int separator = decoded.lastIndexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+        return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                Long.parseLong(decoded.substring(separator + 1)));
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
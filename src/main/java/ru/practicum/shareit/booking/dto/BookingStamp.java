@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+public record BookingStamp(Long bookingId, Long version, Long itemVersion, Long bookerVersion,
+                           Long bookerId, Long ownerId) {
+
+    public boolean isVisibleTo(Long userId) {
+        return bookerId.equals(userId) || ownerId.equals(userId);
+    }
+
+    public String toETag() {
+        return "\"booking-" + bookingId + "-" + version + "-" + itemVersion + "-" + bookerVersion + "\"";
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.mapper;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+
+@Component
+public class BookingCursorConverter implements Converter<String, BookingCursor> {
+    @Override
+    public BookingCursor convert(String source) {
+        return BookingCursor.decode(source);
+    }
+}
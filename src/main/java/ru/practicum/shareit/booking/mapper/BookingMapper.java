@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.AbstractBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -8,12 +9,12 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 public class BookingMapper {
-    public static BookingDto toBookingDto(Booking booking) {
+    public static BookingDto toBookingDto(AbstractBooking booking) {
         return new BookingDto(
                 booking.getId(),
                 booking.getStart(),
                 booking.getEnd(),
-                ItemMapper.toItemDto(booking.getItem()),
+                ItemMapper.toItemDto(booking.getItem(), null),
                 UserMapper.toUserDto(booking.getBooker()),
                 booking.getStatus(),
                 booking.getItem().getId(),
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.VersionedEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Поля, общие для bookings и bookings_archive. Id у таблиц генерируется по-разному, поэтому объявлен в наследниках.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@MappedSuperclass
+public abstract class AbstractBooking extends VersionedEntity {
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id", nullable = false)
+    private User booker;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private State status;
+
+    protected AbstractBooking(LocalDateTime start, LocalDateTime end, Item item, User booker, State status) {
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    public abstract Long getId();
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Objects;
+
+/**
+ * Завершённое бронирование, перенесённое из bookings в bookings_archive. Id сохраняется при переносе.
+ */
+@NoArgsConstructor
+@Getter
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+public class ArchivedBooking extends AbstractBooking {
+    @Id
+    private Long id;
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedBooking booking = (ArchivedBooking) o;
+        return Objects.equals(id, booking.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
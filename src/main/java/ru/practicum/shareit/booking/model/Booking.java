@@ -8,34 +8,20 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
-@AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity
 @Table(name = "bookings")
-public class Booking {
+public class Booking extends AbstractBooking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "start_date", nullable = false)
-    private LocalDateTime start;
-
-    @Column(name = "end_date", nullable = false)
-    private LocalDateTime end;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "item_id", nullable = false)
-    private Item item;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "booker_id", nullable = false)
-    private User booker;
-
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
-    private State status;
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, State status) {
+        super(start, end, item, booker, status);
+        this.id = id;
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -48,4 +34,4 @@ public class Booking {
     public int hashCode() {
         return Objects.hashCode(id);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingAccess;
+import ru.practicum.shareit.booking.dto.BookingStamp;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStamp(b.id, b.version, i.version, u.version, " +
+            "u.id, i.owner.id) FROM ArchivedBooking b JOIN b.item i JOIN b.booker u WHERE b.id = :bookingId")
+    Optional<BookingStamp> findStamp(Long bookingId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingAccess(b.id, i.id, i.owner.id, b.booker.id, b.status) " +
+            "FROM ArchivedBooking b JOIN b.item i WHERE b.id = :bookingId")
+    Optional<BookingAccess> findAccess(Long bookingId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<ArchivedBooking> findWithItemAndBookerById(Long bookingId);
+
+    boolean existsByBooker_IdAndItem_IdAndEndIsBefore(Long userId, Long itemId, LocalDateTime now);
+}
@@ -1,43 +1,45 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingAccess;
+import ru.practicum.shareit.booking.dto.BookingStamp;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBooker_Id(Long bookerId);
-
-    List<Booking> findByItem_Owner_Id(Long ownerId);
-
-    List<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime end);
-
-    List<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime start);
-
-    List<Booking> findByBooker_IdAndStatus(Long bookerId, State status);
-
-    List<Booking> findByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime end);
-
-    List<Booking> findByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime start);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    List<Booking> findByBooker_IdAndItem_IdAndEndIsBefore(Long bookerId, Long itemId, LocalDateTime end);
 
-    List<Booking> findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT b.start, b.end FROM Booking b WHERE b.item.id = ?1 AND b.status IN ?2 AND b.end > ?3")
+    List<Object[]> findPeriods(Long itemId, Collection<State> statuses, LocalDateTime now);
 
-    List<Booking> findByItem_Owner_IdAndStatus(Long ownerId, State status);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStamp(b.id, b.version, i.version, u.version, " +
+            "u.id, i.owner.id) FROM Booking b JOIN b.item i JOIN b.booker u WHERE b.id = :bookingId")
+    Optional<BookingStamp> findStamp(Long bookingId);
 
-    List<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingAccess(b.id, i.id, i.owner.id, b.booker.id, b.status) " +
+            "FROM Booking b JOIN b.item i WHERE b.id = :bookingId")
+    Optional<BookingAccess> findAccess(Long bookingId);
 
-    List<Booking> findByBooker_IdAndItem_IdAndEndIsBefore(Long bookerId, Long itemId, LocalDateTime end);
+    @Query("SELECT b.status FROM Booking b WHERE b.id = :bookingId")
+    Optional<State> findStatus(Long bookingId);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.end <= :now ORDER BY b.start DESC")
-    List<Booking> findLastBooking(Long itemId, LocalDateTime now);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.start > :now ORDER BY b.start ASC")
-    List<Booking> findNextBooking(Long itemId, LocalDateTime now);
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.status = :expected")
+    int updateStatus(Long bookingId, State expected, State status);
 
     boolean existsByBooker_IdAndItem_IdAndEndIsBefore(Long userId, Long itemId, LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findPage(BookingRole role, Long userId, State state, LocalDateTime now,
+                           LocalDateTime cursorStart, Long cursorId, int limit);
+
+    Stream<Booking> streamAll(BookingRole role, Long userId, State state, LocalDateTime now, int fetchSize);
+
+    List<ArchivedBooking> findArchivedPage(BookingRole role, Long userId, State state, LocalDateTime now,
+                                           LocalDateTime cursorStart, Long cursorId, int limit);
+
+    Stream<ArchivedBooking> streamArchived(BookingRole role, Long userId, State state, LocalDateTime now,
+                                           int fetchSize);
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(BookingRole role, Long userId, State state, LocalDateTime now,
+                                  LocalDateTime cursorStart, Long cursorId, int limit) {
+        return createQuery(Booking.class, role, userId, state, now, cursorStart, cursorId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Booking> streamAll(BookingRole role, Long userId, State state, LocalDateTime now, int fetchSize) {
+        return stream(createQuery(Booking.class, role, userId, state, now, null, null), fetchSize);
+    }
+
+    @Override
+    public List<ArchivedBooking> findArchivedPage(BookingRole role, Long userId, State state, LocalDateTime now,
+                                                  LocalDateTime cursorStart, Long cursorId, int limit) {
+        return createQuery(ArchivedBooking.class, role, userId, state, now, cursorStart, cursorId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ArchivedBooking> streamArchived(BookingRole role, Long userId, State state, LocalDateTime now,
+                                                  int fetchSize) {
+        return stream(createQuery(ArchivedBooking.class, role, userId, state, now, null, null), fetchSize);
+    }
+
+    private <T> Stream<T> stream(TypedQuery<T> query, int fetchSize) {
+        return query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+                .getResultStream();
+    }
+
+    /**
+     * bookings и bookings_archive имеют одинаковые атрибуты, поэтому запрос строится для любой из сущностей.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> TypedQuery<T> createQuery(Class<T> type, BookingRole role, Long userId, State state,
+                                          LocalDateTime now, LocalDateTime cursorStart, Long cursorId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> booking = query.from(type);
+        Join<T, Item> item = (Join<T, Item>) booking.<T, Item>fetch("item");
+        booking.fetch("booker");
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(role == BookingRole.OWNER
+                ? cb.equal(item.get("owner").get("id"), userId)
+                : cb.equal(booking.get("booker").get("id"), userId));
+        switch (state) {
+            case CURRENT -> {
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+            }
+            case PAST -> predicates.add(cb.lessThan(end, now));
+            case FUTURE -> predicates.add(cb.greaterThan(start, now));
+            case WAITING, REJECTED, APPROVED -> predicates.add(cb.equal(booking.get("status"), state));
+            case ALL -> {
+            }
+        }
+        if (cursorStart != null) {
+            predicates.add(cb.lessThanOrEqualTo(start, cursorStart));
+            predicates.add(cb.or(cb.lessThan(start, cursorStart), cb.lessThan(id, cursorId)));
+        }
+
+        query.select(booking)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query);
+    }
+}
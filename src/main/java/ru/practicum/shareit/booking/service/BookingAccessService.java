@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingAccess;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Участники бронирования (вещь, владелец, арендатор) читаются одной проекцией и после создания
+ * бронирования не меняются, поэтому их можно недолго кэшировать. Статус в закэшированной записи
+ * может устареть: решения по статусу принимаются по БД. Бронирование, не найденное в bookings,
+ * ищется в архиве.
+ */
+@Service
+public class BookingAccessService {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final Cache<Long, BookingAccess> cache;
+
+    public BookingAccessService(BookingRepository bookingRepository,
+                                ArchivedBookingRepository archivedBookingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking-access.cache.enabled:true}") boolean cacheEnabled,
+                                @Value("${shareit.booking-access.cache.max-size:100000}") long maxSize,
+                                @Value("${shareit.booking-access.cache.ttl:PT1M}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.cache = cacheEnabled
+                ? CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), "bookingAccess")
+                : null;
+    }
+
+    public BookingAccess getAccess(Long bookingId) {
+        BookingAccess access = cache != null ? cache.getIfPresent(bookingId) : null;
+        if (access == null) {
+            access = bookingRepository.findAccess(bookingId)
+                    .or(() -> archivedBookingRepository.findAccess(bookingId))
+                    .orElseThrow(() -> new NoSuchElementException("Бронирование с id=" + bookingId + " не найдено"));
+            if (cache != null) {
+                cache.put(bookingId, access);
+            }
+        }
+        return access;
+    }
+}
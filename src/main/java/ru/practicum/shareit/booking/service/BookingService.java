@@ -1,10 +1,13 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 
+import java.io.OutputStream;
 import java.nio.file.AccessDeniedException;
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, BookingDto bookingDto) throws ItemNotAvailableException;
@@ -13,7 +16,14 @@ public interface BookingService {
 
     BookingDto getBookingById(Long userId, Long bookingId) throws AccessDeniedException;
 
-    List<BookingDto> getAllBookings(Long userId, String state);
+    String getBookingETag(Long userId, Long bookingId) throws AccessDeniedException;
 
-    List<BookingDto> getBookingsForOwner(Long ownerId, String state);
+    BookingPageDto getAllBookings(Long userId, String state, BookingCursor cursor, Integer size, boolean history);
+
+    BookingPageDto getBookingsForOwner(Long ownerId, String state, BookingCursor cursor, Integer size,
+                                       boolean history);
+
+    Consumer<OutputStream> exportBookings(Long userId, String state, boolean history);
+
+    Consumer<OutputStream> exportBookingsForOwner(Long ownerId, String state, boolean history);
 }
\ No newline at end of file
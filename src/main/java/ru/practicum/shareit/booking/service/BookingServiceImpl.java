@@ -1,34 +1,83 @@
 package ru.practicum.shareit.booking.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
+import ru.practicum.shareit.booking.dto.BookingAccess;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStamp;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.NdjsonWriter;
 
+import java.io.OutputStream;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Comparator<BookingDto> NEWEST_FIRST = Comparator.comparing(BookingDto::getStart)
+            .thenComparing(BookingDto::getId)
+            .reversed();
+
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingAccessService bookingAccessService;
+    private final PlatformTransactionManager transactionManager;
+    private final NdjsonWriter ndjsonWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${shareit.pagination.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${shareit.pagination.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${shareit.export.fetch-size:500}")
+    private int exportFetchSize;
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = ItemNotAvailableException.class)
     public BookingDto createBooking(Long userId, BookingDto bookingDto) throws ItemNotAvailableException {
         User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("Пользователь с id=" + userId + " не найден"));
@@ -52,6 +101,8 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Дата окончания бронирования должна быть позже даты начала");
         }
 
+        bookingAvailabilityService.reserve(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+
         Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
@@ -59,7 +110,14 @@ public class BookingServiceImpl implements BookingService {
         booking.setEnd(bookingDto.getEnd());
         booking.setStatus(State.WAITING);
 
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            bookingAvailabilityService.invalidate(item.getId());
+            throw new ItemNotAvailableException("Вещь с id=" + item.getId() + " уже забронирована на эти даты");
+        }
+        itemBookingSummaryService.onBookingCreated(item.getId(), savedBooking.getStart());
         return BookingMapper.toBookingDto(savedBooking);
     }
 
@@ -67,73 +125,205 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto approveBooking(Long ownerId, Long bookingId, boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NoSuchElementException("Бронирование с id=" + bookingId + " не найдено"));
+        BookingAccess access = bookingAccessService.getAccess(bookingId);
 
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
-            throw new RuntimeException("Только владелец вещи с id=" + booking.getItem().getId() + " может подтвердить или отклонить бронирование");
+        if (!access.isOwnedBy(ownerId)) {
+            throw new RuntimeException("Только владелец вещи с id=" + access.itemId() + " может подтвердить или отклонить бронирование");
         }
 
-        if (booking.getStatus() == State.APPROVED) {
+        State status = approved ? State.APPROVED : State.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, State.WAITING, status) == 0) {
+            State current = bookingRepository.findStatus(bookingId)
+                    .orElseThrow(() -> new NoSuchElementException("Бронирование с id=" + bookingId + " не найдено"));
+            if (current == State.REJECTED) {
+                throw new IllegalStateException("Невозможно одобрить отклоненное бронирование. Создайте новый запрос на бронирование.");
+            }
             throw new IllegalStateException("Невозможно изменить статус: бронирование уже подтверждено.");
         }
+        bookingAvailabilityService.invalidate(access.itemId());
+        if (!approved) {
+            itemBookingSummaryService.onBookingRejected(access.itemId());
+        }
+        return BookingMapper.toBookingDto(loadBooking(bookingId));
+    }
 
-        if (booking.getStatus() == State.REJECTED) {
-            throw new IllegalStateException("Невозможно одобрить отклоненное бронирование. Создайте новый запрос на бронирование.");
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingDto getBookingById(Long userId, Long bookingId) throws AccessDeniedException {
+        if (!bookingAccessService.getAccess(bookingId).isVisibleTo(userId)) {
+            throw new AccessDeniedException("Пользователь с id=" + userId + " не имеет доступа к данному бронированию");
         }
 
-        booking.setStatus(approved ? State.APPROVED : State.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(updatedBooking);
+        return bookingRepository.findWithItemAndBookerById(bookingId)
+                .map(BookingMapper::toBookingDto)
+                .or(() -> archivedBookingRepository.findWithItemAndBookerById(bookingId).map(BookingMapper::toBookingDto))
+                .orElseThrow(() -> new NoSuchElementException("Бронирование с id=" + bookingId + " не найдено"));
     }
 
 
     @Override
-    public BookingDto getBookingById(Long userId, Long bookingId) throws AccessDeniedException {
-        Booking booking = bookingRepository.findById(bookingId)
+    @Transactional(readOnly = true)
+    public String getBookingETag(Long userId, Long bookingId) throws AccessDeniedException {
+        BookingStamp stamp = bookingRepository.findStamp(bookingId)
+                .or(() -> archivedBookingRepository.findStamp(bookingId))
                 .orElseThrow(() -> new NoSuchElementException("Бронирование с id=" + bookingId + " не найдено"));
 
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
+        if (!stamp.isVisibleTo(userId)) {
             throw new AccessDeniedException("Пользователь с id=" + userId + " не имеет доступа к данному бронированию");
         }
 
-        return BookingMapper.toBookingDto(booking);
+        return stamp.toETag();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getAllBookings(Long userId, String state, BookingCursor cursor, Integer size,
+                                         boolean history) {
+        return findPage(BookingRole.BOOKER, userId, state, cursor, size, history);
+    }
 
     @Override
-    public List<BookingDto> getAllBookings(Long userId, String state) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
-        List<Booking> bookings = switch (state.toUpperCase()) {
-            case "CURRENT" ->
-                    bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(), LocalDateTime.now());
-            case "PAST" -> bookingRepository.findByBooker_IdAndEndIsBefore(userId, LocalDateTime.now());
-            case "FUTURE" -> bookingRepository.findByBooker_IdAndStartIsAfter(userId, LocalDateTime.now());
-            case "WAITING" -> bookingRepository.findByBooker_IdAndStatus(userId, State.WAITING);
-            case "REJECTED" -> bookingRepository.findByBooker_IdAndStatus(userId, State.REJECTED);
-            default -> bookingRepository.findByBooker_Id(userId);
-        };
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public BookingPageDto getBookingsForOwner(Long ownerId, String state, BookingCursor cursor, Integer size,
+                                              boolean history) {
+        return findPage(BookingRole.OWNER, ownerId, state, cursor, size, history);
     }
 
     @Override
-    public List<BookingDto> getBookingsForOwner(Long ownerId, String state) {
-        User user = userRepository.findById(ownerId)
+    public Consumer<OutputStream> exportBookings(Long userId, String state, boolean history) {
+        return export(BookingRole.BOOKER, userId, state, history);
+    }
+
+    @Override
+    public Consumer<OutputStream> exportBookingsForOwner(Long ownerId, String state, boolean history) {
+        return export(BookingRole.OWNER, ownerId, state, history);
+    }
+
+    private Consumer<OutputStream> export(BookingRole role, Long userId, String state, boolean history) {
+        userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
-        List<Booking> bookings = switch (state.toUpperCase()) {
-            case "CURRENT" -> bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(ownerId,
-                    LocalDateTime.now(), LocalDateTime.now());
-            case "PAST" -> bookingRepository.findByItem_Owner_IdAndEndIsBefore(ownerId, LocalDateTime.now());
-            case "FUTURE" -> bookingRepository.findByItem_Owner_IdAndStartIsAfter(ownerId, LocalDateTime.now());
-            case "WAITING" -> bookingRepository.findByItem_Owner_IdAndStatus(ownerId, State.WAITING);
-            case "REJECTED" -> bookingRepository.findByItem_Owner_IdAndStatus(ownerId, State.REJECTED);
-            default -> bookingRepository.findByItem_Owner_Id(ownerId);
+        State filter = toState(state);
+        return out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> writeBookings(role, userId, filter, history, out));
+        };
+    }
+
+    private void writeBookings(BookingRole role, Long userId, State state, boolean history, OutputStream out) {
+        try (Stream<BookingDto> bookings = streamBookings(role, userId, state, history)) {
+            ndjsonWriter.write(out, BookingDto.class, bookings, exportFetchSize, entityManager::clear);
+        }
+    }
+
+    private Stream<BookingDto> streamBookings(BookingRole role, Long userId, State state, boolean history) {
+        LocalDateTime now = LocalDateTime.now();
+        Stream<BookingDto> bookings = bookingRepository.streamAll(role, userId, state, now, exportFetchSize)
+                .map(BookingMapper::toBookingDto);
+        if (!history || !reachesArchive(state)) {
+            return bookings;
+        }
+        Stream<BookingDto> archived = bookingRepository.streamArchived(role, userId, state, now, exportFetchSize)
+                .map(BookingMapper::toBookingDto);
+        return merge(bookings, archived);
+    }
+
+    /**
+     * Сливает два потока, уже отсортированных по NEWEST_FIRST, не читая их целиком. Бронирование,
+     * перенесённое в архив во время выгрузки, приходит из обоих потоков подряд и выдаётся один раз.
+     */
+    private Stream<BookingDto> merge(Stream<BookingDto> first, Stream<BookingDto> second) {
+        Iterator<BookingDto> left = first.iterator();
+        Iterator<BookingDto> right = second.iterator();
+        Iterator<BookingDto> merged = new Iterator<>() {
+            private BookingDto nextLeft = left.hasNext() ? left.next() : null;
+            private BookingDto nextRight = right.hasNext() ? right.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public BookingDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (nextLeft != null && nextRight != null && nextLeft.getId().equals(nextRight.getId())) {
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                BookingDto result;
+                if (nextRight == null || (nextLeft != null && NEWEST_FIRST.compare(nextLeft, nextRight) <= 0)) {
+                    result = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    result = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return result;
+            }
         };
-        return bookings.stream()
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(first::close)
+                .onClose(second::close);
+    }
+
+    /**
+     * В архиве только давно закончившиеся бронирования: текущие и будущие там искать не нужно.
+     */
+    private boolean reachesArchive(State state) {
+        return state != State.CURRENT && state != State.FUTURE;
+    }
+
+    private Booking loadBooking(Long bookingId) {
+        return bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NoSuchElementException("Бронирование с id=" + bookingId + " не найдено"));
+    }
+
+    private BookingPageDto findPage(BookingRole role, Long userId, String state, BookingCursor cursor, Integer size,
+                                    boolean history) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
+        BookingCursor after = cursor != null ? cursor : BookingCursor.first();
+        int pageSize = pageSize(size);
+        State filter = toState(state);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookings = bookingRepository.findPage(role, userId, filter, now,
+                        after.start(), after.id(), pageSize + 1).stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
+        if (history && reachesArchive(filter)) {
+            // Архив читается вторым: бронирование, перенесённое между запросами, попадёт в оба
+            // результата, но не потеряется. Дубликат отбрасывается по id.
+            Map<Long, BookingDto> merged = new LinkedHashMap<>();
+            bookings.forEach(booking -> merged.put(booking.getId(), booking));
+            bookingRepository.findArchivedPage(role, userId, filter, now, after.start(), after.id(), pageSize + 1)
+                    .forEach(booking -> merged.putIfAbsent(booking.getId(), BookingMapper.toBookingDto(booking)));
+            bookings = new ArrayList<>(merged.values());
+            bookings.sort(NEWEST_FIRST);
+        }
+        return toPage(bookings, pageSize);
+    }
+
+    private State toState(String state) {
+        return Arrays.stream(State.values())
+                .filter(value -> value.name().equalsIgnoreCase(state))
+                .findFirst()
+                .orElse(State.ALL);
+    }
+
+    private int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+
+    private BookingPageDto toPage(List<BookingDto> bookings, int size) {
+        String next = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            BookingDto last = bookings.get(size - 1);
+            next = new BookingCursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingPageDto(bookings, next);
     }
 }
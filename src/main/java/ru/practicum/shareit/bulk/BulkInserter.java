@@ -0,0 +1,166 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.bulk.dto.BulkRowResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Потоково читает JSON-массив (или NDJSON) строк, проверяет каждую строку и вставляет
+ * корректные пачками по shareit.bulk.batch-size, каждую пачку в своей транзакции.
+ * Если пачка не записалась целиком, её строки повторяются по одной.
+ */
+@Slf4j
+@Component
+public class BulkInserter {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkInserter(ObjectMapper objectMapper, Validator validator, PlatformTransactionManager transactionManager,
+                        @Value("${shareit.bulk.batch-size:500}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public <D, E> BulkResultDto insert(InputStream body, Class<D> rowType, BulkRowHandler<D, E> handler)
+            throws IOException {
+        List<BulkRowResult> results = new ArrayList<>();
+        List<Row<D>> chunk = new ArrayList<>(batchSize);
+        int index = 0;
+        try (MappingIterator<D> rows = objectMapper.readerFor(rowType).readValues(body)) {
+            while (true) {
+                D value;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    value = rows.nextValue();
+                } catch (JsonParseException e) {
+                    results.add(BulkRowResult.failed(index, "Некорректный JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(BulkRowResult.failed(index++, "Некорректная строка: " + e.getOriginalMessage()));
+                    continue;
+                }
+                String violations = validate(value);
+                if (violations != null) {
+                    results.add(BulkRowResult.failed(index, violations));
+                } else {
+                    chunk.add(new Row<>(index, value));
+                    if (chunk.size() == batchSize) {
+                        results.addAll(write(chunk, handler));
+                        chunk.clear();
+                    }
+                }
+                index++;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(write(chunk, handler));
+        }
+        results.sort(Comparator.comparingInt(BulkRowResult::index));
+        return BulkResultDto.of(results);
+    }
+
+    private <D, E> List<BulkRowResult> write(List<Row<D>> chunk, BulkRowHandler<D, E> handler) {
+        try {
+            return transactionTemplate.execute(status -> writeChunk(chunk, handler));
+        } catch (DataAccessException | PersistenceException e) {
+            log.warn("Пакет из {} строк не записан, повтор по одной строке: {}", chunk.size(), rootMessage(e));
+            entityManager.clear();
+            List<BulkRowResult> results = new ArrayList<>(chunk.size());
+            for (Row<D> row : chunk) {
+                try {
+                    results.addAll(transactionTemplate.execute(status -> writeChunk(List.of(row), handler)));
+                } catch (DataAccessException | PersistenceException rowException) {
+                    entityManager.clear();
+                    results.add(BulkRowResult.failed(row.index(), rootMessage(rowException)));
+                }
+            }
+            return results;
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private <D, E> List<BulkRowResult> writeChunk(List<Row<D>> chunk, BulkRowHandler<D, E> handler) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        handler.prepare(chunk.stream().map(Row::value).toList());
+
+        List<BulkRowResult> results = new ArrayList<>(chunk.size());
+        List<Row<D>> accepted = new ArrayList<>(chunk.size());
+        List<E> entities = new ArrayList<>(chunk.size());
+        for (Row<D> row : chunk) {
+            String reason = handler.reject(row.value());
+            if (reason != null) {
+                results.add(BulkRowResult.failed(row.index(), reason));
+                continue;
+            }
+            E entity = handler.toEntity(row.value());
+            entityManager.persist(entity);
+            accepted.add(row);
+            entities.add(entity);
+        }
+        entityManager.flush();
+        handler.afterInsert(entities);
+        entityManager.flush();
+
+        for (int i = 0; i < accepted.size(); i++) {
+            results.add(BulkRowResult.created(accepted.get(i).index(), handler.getId(entities.get(i))));
+        }
+        return results;
+    }
+
+    private <D> String validate(D value) {
+        if (value == null) {
+            return "Пустая строка";
+        }
+        Set<ConstraintViolation<D>> violations = validator.validate(value);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        StringBuilder errors = new StringBuilder();
+        for (ConstraintViolation<D> violation : violations) {
+            errors.append(violation.getPropertyPath()).append(": ").append(violation.getMessage()).append("; ");
+        }
+        return errors.toString();
+    }
+
+    private String rootMessage(Exception e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return "Ошибка записи: " + cause.getMessage();
+    }
+
+    private record Row<D>(int index, D value) {
+    }
+}
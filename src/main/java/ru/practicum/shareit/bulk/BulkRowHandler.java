@@ -0,0 +1,21 @@
+package ru.practicum.shareit.bulk;
+
+import java.util.List;
+
+public interface BulkRowHandler<D, E> {
+
+    default void prepare(List<D> rows) {
+    }
+
+    /**
+     * Возвращает причину отказа для строки или null, если строку можно вставлять.
+     */
+    String reject(D row);
+
+    E toEntity(D row);
+
+    Long getId(E entity);
+
+    default void afterInsert(List<E> entities) {
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.bulk.dto;
+
+import java.util.List;
+
+public record BulkResultDto(long created, long failed, List<BulkRowResult> results) {
+
+    public static BulkResultDto of(List<BulkRowResult> results) {
+        long created = results.stream().filter(BulkRowResult::isCreated).count();
+        return new BulkResultDto(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.bulk.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public record BulkRowResult(int index, Long id, String error) {
+
+    public static BulkRowResult created(int index, Long id) {
+        return new BulkRowResult(index, id, null);
+    }
+
+    public static BulkRowResult failed(int index, String error) {
+        return new BulkRowResult(index, null, error);
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return error == null;
+    }
+}
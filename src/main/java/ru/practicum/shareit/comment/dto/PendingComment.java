@@ -0,0 +1,7 @@
+package ru.practicum.shareit.comment.dto;
+
+import java.time.LocalDateTime;
+
+public record PendingComment(Long id, Long itemId, Long authorId, String authorName, String text,
+                             LocalDateTime created) {
+}
@@ -0,0 +1,211 @@
+package ru.practicum.shareit.comment.ingestion;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.PendingComment;
+import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.exception.CommentQueueFullException;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Принимает комментарии в ограниченную очередь и записывает их фоновым потоком пачками.
+ * Пока комментарий не записан, он виден при чтении вещи через overlay.
+ * Гарантия at-most-once: при падении процесса незаписанные комментарии теряются,
+ * при штатной остановке очередь дописывается до конца.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.comments.ingestion", havingValue = "async")
+@RequiredArgsConstructor
+public class AsyncCommentIngestion implements CommentIngestion, SmartLifecycle {
+    private static final long POLL_TIMEOUT_MS = 500;
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final CommentBatchWriter commentBatchWriter;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, List<PendingComment>> overlay = new ConcurrentHashMap<>();
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+
+    @Value("${shareit.comments.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${shareit.comments.batch-size:200}")
+    private int batchSize;
+
+    @Value("${shareit.comments.shutdown-timeout:PT30S}")
+    private Duration shutdownTimeout;
+
+    private BlockingQueue<PendingComment> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @Override
+    public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) throws ItemNotAvailableException {
+        User author = userRepository.findById(userId).orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!bookingRepository.existsByBooker_IdAndItem_IdAndEndIsBefore(userId, itemId, now)
+                && !archivedBookingRepository.existsByBooker_IdAndItem_IdAndEndIsBefore(userId, itemId, now)) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new NoSuchElementException("Вещь не найдена");
+            }
+            throw new ItemNotAvailableException("Пользователь не арендовал вещь или срок аренды не закончился");
+        }
+
+        PendingComment comment = new PendingComment(commentBatchWriter.nextId(), itemId, userId, author.getName(),
+                commentDto.getText(), LocalDateTime.now());
+        // Проверка и постановка в очередь атомарны относительно stop(): иначе комментарий мог попасть
+        // в очередь после выхода потока записи и потеряться
+        shutdownLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new CommentQueueFullException("Приём комментариев остановлен, повторите попытку позже");
+            }
+            overlay.merge(itemId, List.of(comment), (pending, added) -> Stream.concat(pending.stream(), added.stream()).toList());
+            if (!queue.offer(comment)) {
+                removeFromOverlay(List.of(comment));
+                throw new CommentQueueFullException("Очередь комментариев переполнена, повторите попытку позже");
+            }
+        } finally {
+            shutdownLock.readLock().unlock();
+        }
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Override
+    public Map<Long, List<CommentDto>> getPending(Collection<Long> itemIds) {
+        Map<Long, List<CommentDto>> pending = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<PendingComment> comments = overlay.get(itemId);
+            if (comments != null) {
+                pending.put(itemId, comments.stream().map(CommentMapper::toCommentDto).toList());
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public Long getLastPendingId(Long itemId) {
+        return overlay.getOrDefault(itemId, List.of()).stream()
+                .map(PendingComment::id)
+                .max(Long::compare)
+                .orElse(null);
+    }
+
+    @Override
+    public void start() {
+        if (queue == null) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            Gauge.builder("shareit.comments.queue.size", queue, Collection::size).register(meterRegistry);
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("comment-writer").start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        shutdownLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            shutdownLock.writeLock().unlock();
+        }
+        try {
+            if (!writer.join(shutdownTimeout)) {
+                log.warn("Запись комментариев не завершилась за {}, в очереди осталось {}", shutdownTimeout, queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Останавливаемся после веб-сервера, чтобы дописать всё, что приняли последние запросы
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            PendingComment first;
+            try {
+                first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingComment> batch) {
+        try {
+            commentBatchWriter.write(batch);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось записать пачку из {} комментариев, записываем по одному: {}", batch.size(), e.getMessage());
+            for (PendingComment comment : batch) {
+                try {
+                    commentBatchWriter.write(List.of(comment));
+                } catch (RuntimeException ex) {
+                    log.error("Комментарий id={} к вещи id={} отброшен: {}", comment.id(), comment.itemId(), ex.getMessage());
+                }
+            }
+        } finally {
+            removeFromOverlay(batch);
+        }
+    }
+
+    private void removeFromOverlay(List<PendingComment> comments) {
+        for (PendingComment comment : comments) {
+            overlay.computeIfPresent(comment.itemId(), (itemId, pending) -> {
+                List<PendingComment> rest = pending.stream()
+                        .filter(candidate -> !candidate.id().equals(comment.id()))
+                        .toList();
+                return rest.isEmpty() ? null : rest;
+            });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.comment.ingestion;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.comment.dto.PendingComment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.comments.ingestion", havingValue = "async")
+@RequiredArgsConstructor
+public class CommentBatchWriter {
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (id, text, item_id, author_id, created, version) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String TOUCH_ITEM = "UPDATE items SET version = version + 1 WHERE id = ?";
+    // Совпадает с allocationSize генератора comments_seq в Comment: оба берут из последовательности блоки по 50 id
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private String nextValueSql;
+    private long nextId;
+    private long idLimit;
+
+    public synchronized Long nextId() {
+        if (nextId == idLimit) {
+            if (nextValueSql == null) {
+                nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                        .getDialect().getSequenceSupport().getSequenceNextValString("comments_seq");
+            }
+            nextId = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            idLimit = nextId + ID_ALLOCATION_SIZE;
+        }
+        return nextId++;
+    }
+
+    public void write(List<PendingComment> comments) {
+        List<Long> itemIds = comments.stream().map(PendingComment::itemId).distinct().sorted().toList();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_COMMENT, comments, comments.size(), (statement, comment) -> {
+                statement.setLong(1, comment.id());
+                statement.setString(2, comment.text());
+                statement.setLong(3, comment.itemId());
+                statement.setLong(4, comment.authorId());
+                statement.setObject(5, comment.created());
+            });
+            jdbcTemplate.batchUpdate(TOUCH_ITEM, itemIds, itemIds.size(),
+                    (statement, itemId) -> statement.setLong(1, itemId));
+        });
+        Cache cache = entityManagerFactory.getCache();
+        itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.comment.ingestion;
+
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface CommentIngestion {
+    CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) throws ItemNotAvailableException;
+
+    /**
+     * Комментарии, принятые, но ещё не записанные в БД, сгруппированные по вещам.
+     */
+    Map<Long, List<CommentDto>> getPending(Collection<Long> itemIds);
+
+    /**
+     * Наибольший id незаписанного комментария к вещи или null, если таких нет.
+     */
+    Long getLastPendingId(Long itemId);
+}
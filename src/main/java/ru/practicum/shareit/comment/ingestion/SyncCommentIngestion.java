@@ -0,0 +1,66 @@
+package ru.practicum.shareit.comment.ingestion;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@Component
+@ConditionalOnProperty(name = "shareit.comments.ingestion", havingValue = "sync", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SyncCommentIngestion implements CommentIngestion {
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final CommentRepository commentRepository;
+
+    @Override
+    @Transactional
+    public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) throws ItemNotAvailableException {
+        User author = userRepository.findById(userId).orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NoSuchElementException("Вещь не найдена"));
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean hasBooked = bookingRepository.existsByBooker_IdAndItem_IdAndEndIsBefore(userId, itemId, now)
+                || archivedBookingRepository.existsByBooker_IdAndItem_IdAndEndIsBefore(userId, itemId, now);
+
+        if (!hasBooked) {
+            throw new ItemNotAvailableException("Пользователь не арендовал вещь или срок аренды не закончился");
+        }
+
+        Comment comment = CommentMapper.toComment(commentDto, item, author);
+        comment.setCreated(LocalDateTime.now());
+        Comment savedComment = commentRepository.save(comment);
+
+        return CommentMapper.toCommentDto(savedComment);
+    }
+
+    @Override
+    public Map<Long, List<CommentDto>> getPending(Collection<Long> itemIds) {
+        return Map.of();
+    }
+
+    @Override
+    public Long getLastPendingId(Long itemId) {
+        return null;
+    }
+}
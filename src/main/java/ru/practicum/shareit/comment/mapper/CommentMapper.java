@@ -1,6 +1,7 @@
 package ru.practicum.shareit.comment.mapper;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.PendingComment;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -16,6 +17,16 @@ public class CommentMapper {
         );
     }
 
+    public static CommentDto toCommentDto(PendingComment comment) {
+        return new CommentDto(
+                comment.id(),
+                comment.text(),
+                comment.itemId(),
+                comment.authorName(),
+                comment.created()
+        );
+    }
+
     public static Comment toComment(CommentDto commentDto, Item item, User author) {
         return new Comment(
                 commentDto.getId(),
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.VersionedEntity;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -14,9 +15,10 @@ import java.util.Objects;
 @NoArgsConstructor
 @Getter
 @Setter
-public class Comment {
+public class Comment extends VersionedEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "text", nullable = false)
@@ -44,4 +46,4 @@ public class Comment {
     public int hashCode() {
         return Objects.hashCode(id);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
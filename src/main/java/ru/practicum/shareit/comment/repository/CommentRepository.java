@@ -1,12 +1,19 @@
 package ru.practicum.shareit.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItem_Id(Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.comment.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a WHERE c.item.id IN ?1 ORDER BY c.created")
+    List<CommentDto> findDtoByItemIds(Collection<Long> itemIds);
 }
\ No newline at end of file
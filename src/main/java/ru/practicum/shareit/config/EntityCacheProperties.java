@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "shareit.cache")
+public record EntityCacheProperties(Map<String, Region> regions) {
+
+    public record Region(long maxSize, Duration ttl) {
+    }
+}
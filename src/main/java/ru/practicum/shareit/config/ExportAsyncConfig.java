@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Длинный таймаут асинхронной обработки нужен только выгрузкам NDJSON,
+ * остальные запросы живут с таймаутом контейнера.
+ */
+@Configuration
+public class ExportAsyncConfig implements WebMvcConfigurer {
+    private static final String EXPORT_SUFFIX = "/export";
+
+    @Value("${shareit.export.timeout:30m}")
+    private Duration exportTimeout;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                        RequestAttributes.SCOPE_REQUEST);
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && pattern != null && pattern.toString().endsWith(EXPORT_SUFFIX)) {
+                    asyncRequest.setTimeout(exportTimeout.toMillis());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.sql.Connection;
+
+/**
+ * Отдаёт соединения с реплики для read-only транзакций и с основной БД для остальных.
+ * Физическое соединение берётся при первом запросе, когда флаг readOnly уже выставлен.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica) {
+        super(primary);
+        this.primary = primary;
+        this.replica = replica;
+        setReadOnlyDataSource(replica);
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
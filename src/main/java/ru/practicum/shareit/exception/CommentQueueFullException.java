@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class CommentQueueFullException extends RuntimeException {
+    public CommentQueueFullException(String message) {
+        super(message);
+    }
+}
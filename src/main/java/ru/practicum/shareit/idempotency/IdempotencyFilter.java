@@ -0,0 +1,203 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.idempotency.dto.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.dto.RequestFingerprint;
+import ru.practicum.shareit.idempotency.dto.StoredResponse;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Повтор POST /bookings и POST /items с тем же Idempotency-Key от того же пользователя получает
+ * сохранённый ответ, не доходя до сервисов. Сохраняются только успешные ответы: после ошибки ключ
+ * освобождается, и запрос можно повторить. Ключ закрепляется за методом, путём и телом запроса:
+ * тот же ключ с другим запросом отклоняется с 422, а не получает чужой ответ.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    private static final Set<String> PATHS = Set.of("/bookings", "/items");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !PATHS.contains(path(request))
+                || request.getHeader(HeaderConstants.IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HeaderConstants.IDEMPOTENCY_KEY);
+        Long userId = parseUserId(request.getHeader(HeaderConstants.X_SHARER_USER_ID));
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key должен быть непустым и не длиннее " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        RequestFingerprint fingerprint = new RequestFingerprint(request.getMethod(), path(request), sha256(body));
+        if (!idempotencyStore.tryReserve(userId, key, fingerprint)) {
+            IdempotencyRecord existing = idempotencyStore.find(userId, key);
+            if (existing != null && existing.request() != null && !existing.request().equals(fingerprint)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key уже использован для другого запроса");
+            } else if (existing == null || existing.response() == null) {
+                writeError(response, HttpStatus.CONFLICT, "Запрос с таким Idempotency-Key ещё выполняется");
+            } else {
+                log.debug("Повтор запроса {} {} с Idempotency-Key {}", request.getMethod(), request.getRequestURI(), key);
+                replay(response, existing.response());
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), wrapper);
+            if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful()) {
+                idempotencyStore.complete(userId, key, new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8)));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.release(userId, key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(HeaderConstants.IDEMPOTENT_REPLAYED, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            response.getOutputStream().write(stored.body().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Long parseUserId(String header) {
+        try {
+            return header == null ? null : Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Тело уже прочитано для отпечатка, поэтому дальше по цепочке оно отдаётся из памяти.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
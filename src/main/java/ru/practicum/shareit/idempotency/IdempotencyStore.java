@@ -0,0 +1,21 @@
+package ru.practicum.shareit.idempotency;
+
+import ru.practicum.shareit.idempotency.dto.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.dto.RequestFingerprint;
+import ru.practicum.shareit.idempotency.dto.StoredResponse;
+
+public interface IdempotencyStore {
+    /**
+     * Занимает ключ за текущим запросом. false, если ключ уже занят: ответ сохранён или запрос ещё выполняется.
+     */
+    boolean tryReserve(Long userId, String key, RequestFingerprint request);
+
+    /**
+     * Запись о ключе или null, если ключа нет.
+     */
+    IdempotencyRecord find(Long userId, String key);
+
+    void complete(Long userId, String key, StoredResponse response);
+
+    void release(Long userId, String key);
+}
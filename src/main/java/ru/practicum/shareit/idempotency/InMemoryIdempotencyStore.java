@@ -0,0 +1,58 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.idempotency.dto.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.dto.RequestFingerprint;
+import ru.practicum.shareit.idempotency.dto.StoredResponse;
+
+import java.time.Duration;
+
+/**
+ * Ключи живут в памяти процесса: подходит для одного узла, при перезапуске ключи теряются.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<Key, IdempotencyRecord> cache;
+
+    public InMemoryIdempotencyStore(MeterRegistry meterRegistry,
+                                    @Value("${shareit.idempotency.max-size:100000}") long maxSize,
+                                    @Value("${shareit.idempotency.ttl:PT24H}") Duration ttl) {
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), "idempotencyKeys");
+    }
+
+    @Override
+    public boolean tryReserve(Long userId, String key, RequestFingerprint request) {
+        return cache.asMap().putIfAbsent(new Key(userId, key), new IdempotencyRecord(request, null)) == null;
+    }
+
+    @Override
+    public IdempotencyRecord find(Long userId, String key) {
+        return cache.getIfPresent(new Key(userId, key));
+    }
+
+    @Override
+    public void complete(Long userId, String key, StoredResponse response) {
+        cache.asMap().computeIfPresent(new Key(userId, key),
+                (ignored, record) -> new IdempotencyRecord(record.request(), response));
+    }
+
+    @Override
+    public void release(Long userId, String key) {
+        cache.asMap().computeIfPresent(new Key(userId, key),
+                (ignored, record) -> record.response() == null ? null : record);
+    }
+
+    private record Key(Long userId, String key) {
+    }
+}
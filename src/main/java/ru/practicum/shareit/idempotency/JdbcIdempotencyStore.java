@@ -0,0 +1,96 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.idempotency.dto.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.dto.RequestFingerprint;
+import ru.practicum.shareit.idempotency.dto.StoredResponse;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Ключи хранятся в таблице idempotency_keys и общие для всех узлов. Уникальность ключа
+ * обеспечивает первичный ключ (user_id, idempotency_key), просроченные записи удаляются по расписанию.
+ * Незавершённая запись, оставшаяся после падения узла, освобождается через shareit.idempotency.lock-timeout.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${shareit.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${shareit.idempotency.lock-timeout:PT1M}")
+    private Duration lockTimeout;
+
+    @Override
+    public boolean tryReserve(Long userId, String key, RequestFingerprint request) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? "
+                        + "AND (created_at < ? OR (status IS NULL AND created_at < ?))",
+                userId, key, Timestamp.valueOf(now.minus(ttl)), Timestamp.valueOf(now.minus(lockTimeout)));
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys "
+                            + "(user_id, idempotency_key, created_at, request_method, request_path, request_hash) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    userId, key, Timestamp.valueOf(now), request.method(), request.path(), request.bodyHash());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public IdempotencyRecord find(Long userId, String key) {
+        return jdbcTemplate.query("SELECT request_method, request_path, request_hash, status, content_type, body "
+                        + "FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND created_at >= ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    String method = rs.getString(1);
+                    RequestFingerprint request = method == null
+                            ? null
+                            : new RequestFingerprint(method, rs.getString(2), rs.getString(3));
+                    int status = rs.getInt(4);
+                    StoredResponse response = rs.wasNull()
+                            ? null
+                            : new StoredResponse(status, rs.getString(5), rs.getString(6));
+                    return new IdempotencyRecord(request, response);
+                },
+                userId, key, Timestamp.valueOf(LocalDateTime.now().minus(ttl)));
+    }
+
+    @Override
+    public void complete(Long userId, String key, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, content_type = ?, body = ? "
+                        + "WHERE user_id = ? AND idempotency_key = ?",
+                response.status(), response.contentType(), response.body(), userId, key);
+    }
+
+    @Override
+    public void release(Long userId, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND status IS NULL",
+                userId, key);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(ttl)));
+        if (purged > 0) {
+            log.info("Удалено просроченных ключей идемпотентности: {}", purged);
+        }
+    }
+}
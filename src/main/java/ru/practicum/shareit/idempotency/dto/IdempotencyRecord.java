@@ -0,0 +1,8 @@
+package ru.practicum.shareit.idempotency.dto;
+
+/**
+ * Запись о ключе. response равен null, пока запрос ещё выполняется; request равен null
+ * у записей, сохранённых до появления отпечатка запроса.
+ */
+public record IdempotencyRecord(RequestFingerprint request, StoredResponse response) {
+}
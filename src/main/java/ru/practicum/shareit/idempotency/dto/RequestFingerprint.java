@@ -0,0 +1,7 @@
+package ru.practicum.shareit.idempotency.dto;
+
+/**
+ * Запрос, за которым закреплён ключ: метод, путь и SHA-256 тела в hex.
+ */
+public record RequestFingerprint(String method, String path, String bodyHash) {
+}
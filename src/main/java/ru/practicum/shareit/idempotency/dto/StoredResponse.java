@@ -0,0 +1,4 @@
+package ru.practicum.shareit.idempotency.dto;
+
+public record StoredResponse(int status, String contentType, String body) {
+}
@@ -2,9 +2,13 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.ItemValidationException;
@@ -13,6 +17,8 @@ import ru.practicum.shareit.item.dto.ItemWithDateDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.util.HeaderConstants;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -28,6 +34,12 @@ public class ItemController {
         return new ResponseEntity<>(itemService.createItem(userId, itemDto), HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResultDto> createItems(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                     InputStream body) throws IOException {
+        return new ResponseEntity<>(itemService.createItems(userId, body), HttpStatus.OK);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long userId,
                                               @PathVariable Long itemId,
@@ -37,8 +49,17 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemWithDateDto> getItem(@RequestHeader(HeaderConstants.X_SHARER_USER_ID) Long userId,
-                                                   @PathVariable Long itemId) {
-        return new ResponseEntity<>(itemService.getItemById(userId, itemId), HttpStatus.OK);
+                                                   @PathVariable Long itemId,
+                                                   WebRequest request) {
+        String eTag = itemService.getItemETag(itemId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        return new ResponseEntity<>(itemService.getItemById(userId, itemId), headers, HttpStatus.OK);
     }
 
     @GetMapping
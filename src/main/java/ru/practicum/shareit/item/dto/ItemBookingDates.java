@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public record ItemBookingDates(Long itemId, LocalDateTime lastBooking, LocalDateTime nextBooking) {
+
+    public static ItemBookingDates empty(Long itemId) {
+        return new ItemBookingDates(itemId, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+public record ItemOwnerView(Long id, String name, String description, Boolean available,
+                            LocalDateTime lastBooking, LocalDateTime nextBooking) {
+}
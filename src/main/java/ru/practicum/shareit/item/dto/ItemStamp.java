@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отпечаток вещи для ETag. authorsVersion — сумма версий авторов комментариев:
+ * ответ содержит их имена, а переименование пользователя не меняет версию вещи.
+ */
+public record ItemStamp(Long itemId, Long version, LocalDateTime lastBooking, LocalDateTime nextBooking,
+                        Long authorsVersion) {
+
+    public boolean isStaleAt(LocalDateTime now) {
+        return nextBooking != null && !nextBooking.isAfter(now);
+    }
+
+    public String toETag(Long lastPendingCommentId) {
+        String pending = lastPendingCommentId == null ? "" : "-p" + lastPendingCommentId;
+        return "\"item-" + itemId + "-" + version + "-" + lastBooking + "-" + nextBooking + "-a" + authorsVersion + pending + "\"";
+    }
+}
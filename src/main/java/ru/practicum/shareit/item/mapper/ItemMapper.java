@@ -15,6 +15,10 @@ public class ItemMapper {
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
 
+        return toItemDto(item, comments);
+    }
+
+    public static ItemDto toItemDto(Item item, List<CommentDto> comments) {
         return new ItemDto(
                 item.getId(),
                 item.getName(),
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemOwnerView;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 import ru.practicum.shareit.item.model.Item;
 
@@ -15,6 +16,11 @@ public class ItemWithDateMapper {
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
 
+        return toDtoWithDate(item, lastBooking, nextBooking, comments);
+    }
+
+    public static ItemWithDateDto toDtoWithDate(Item item, LocalDateTime lastBooking, LocalDateTime nextBooking,
+                                                List<CommentDto> comments) {
         return new ItemWithDateDto(
                 item.getId(),
                 item.getName(),
@@ -25,4 +31,16 @@ public class ItemWithDateMapper {
                 comments
         );
     }
+
+    public static ItemWithDateDto toDtoWithDate(ItemOwnerView item, List<CommentDto> comments) {
+        return new ItemWithDateDto(
+                item.id(),
+                item.name(),
+                item.description(),
+                item.available(),
+                null,
+                item.nextBooking(),
+                comments
+        );
+    }
 }
\ No newline at end of file
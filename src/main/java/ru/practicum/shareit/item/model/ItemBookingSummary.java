@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking")
+    private LocalDateTime lastBooking;
+
+    @Column(name = "next_booking")
+    private LocalDateTime nextBooking;
+}
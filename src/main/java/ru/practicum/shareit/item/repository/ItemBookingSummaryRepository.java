@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    String RECOMPUTE = "UPDATE ItemBookingSummary s SET " +
+            "s.lastBooking = COALESCE((SELECT MAX(b.start) FROM Booking b " +
+            "WHERE b.item.id = s.itemId AND b.status <> :rejected AND b.start <= :now), " +
+            "(SELECT MAX(a.start) FROM ArchivedBooking a WHERE a.item.id = s.itemId AND a.status <> :rejected)), " +
+            "s.nextBooking = (SELECT MIN(b.start) FROM Booking b " +
+            "WHERE b.item.id = s.itemId AND b.status <> :rejected AND b.start > :now) ";
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemBookingDates(s.itemId, s.lastBooking, s.nextBooking) " +
+            "FROM ItemBookingSummary s WHERE s.itemId IN :itemIds")
+    List<ItemBookingDates> findDates(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.nextBooking = :start " +
+            "WHERE s.itemId = :itemId AND (s.nextBooking IS NULL OR s.nextBooking > :start)")
+    int offerNextBooking(Long itemId, LocalDateTime start);
+
+    @Modifying
+    @Query(RECOMPUTE + "WHERE s.itemId IN :itemIds")
+    int recompute(Collection<Long> itemIds, LocalDateTime now, State rejected);
+
+    @Modifying
+    @Query(RECOMPUTE + "WHERE s.nextBooking <= :now")
+    int recomputeStale(LocalDateTime now, State rejected);
+}
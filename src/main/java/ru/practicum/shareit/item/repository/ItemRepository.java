@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemOwnerView;
+import ru.practicum.shareit.item.dto.ItemStamp;
 import ru.practicum.shareit.item.model.Item;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -17,13 +21,23 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')))")
     List<Item> search(String text);
 
-    List<Item> findByOwnerId(Long ownerId);
+    @Query("SELECT i.id, i.name, i.description FROM Item i WHERE i.available = true")
+    List<Object[]> findAvailableForIndex();
 
-    @Query("SELECT b.item.id, MAX(b.start) FROM Booking b " +
-            "WHERE b.item.id IN ?1 AND b.start <= ?2 GROUP BY b.item.id")
-    List<Object[]> findLastBookings(List<Long> itemIds, LocalDateTime now);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemOwnerView(i.id, i.name, i.description, i.available, " +
+            "s.lastBooking, s.nextBooking) " +
+            "FROM Item i LEFT JOIN ItemBookingSummary s ON s.itemId = i.id WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<ItemOwnerView> findOwnerViews(Long ownerId);
 
-    @Query("SELECT b.item.id, MIN(b.start) FROM Booking b " +
-            "WHERE b.item.id IN ?1 AND b.start > ?2 GROUP BY b.item.id")
-    List<Object[]> findNextBookings(List<Long> itemIds, LocalDateTime now);
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemStamp(i.id, i.version, s.lastBooking, s.nextBooking, " +
+            "(SELECT COALESCE(SUM(a.version), 0) FROM Comment c JOIN c.author a WHERE c.item.id = i.id)) " +
+            "FROM Item i LEFT JOIN ItemBookingSummary s ON s.itemId = i.id WHERE i.id = :itemId")
+    Optional<ItemStamp> findStamp(Long itemId);
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Поиск по инвертированному индексу токенов из названия и описания доступных вещей.
+ * Токен запроса совпадает с любым проиндексированным токеном, который с него начинается.
+ * Изменения, сделанные в транзакции, попадают в индекс только после её коммита.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ItemRepository itemRepository;
+
+    private volatile ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, Set<String>> tokensByItem = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ConcurrentSkipListMap<String, Set<Long>> newPostings = new ConcurrentSkipListMap<>();
+        Map<Long, Set<String>> newTokensByItem = new ConcurrentHashMap<>();
+        for (Object[] row : itemRepository.findAvailableForIndex()) {
+            Long itemId = (Long) row[0];
+            Set<String> tokens = tokenize((String) row[1] + " " + row[2]);
+            newTokensByItem.put(itemId, tokens);
+            tokens.forEach(token -> newPostings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(itemId));
+        }
+        postings = newPostings;
+        tokensByItem = newTokensByItem;
+        log.info("Поисковый индекс вещей построен: {} вещей, {} токенов", newTokensByItem.size(), newPostings.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        Long itemId = item.getId();
+        Set<String> tokens = Boolean.TRUE.equals(item.getAvailable())
+                ? tokenize(item.getName() + " " + item.getDescription())
+                : Set.of();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replaceTokens(itemId, tokens);
+                }
+            });
+        } else {
+            replaceTokens(itemId, tokens);
+        }
+    }
+
+    private synchronized void replaceTokens(Long itemId, Set<String> tokens) {
+        Set<String> oldTokens = tokensByItem.remove(itemId);
+        if (oldTokens != null) {
+            oldTokens.forEach(token -> postings.computeIfPresent(token, (t, ids) -> {
+                ids.remove(itemId);
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+        if (tokens.isEmpty()) {
+            return;
+        }
+        tokensByItem.put(itemId, tokens);
+        tokens.forEach(token -> postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(itemId));
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> result = null;
+        for (String token : queryTokens) {
+            Set<Long> matches = new HashSet<>();
+            postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                    .values()
+                    .forEach(matches::addAll);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        return itemRepository.findAllById(result).stream()
+                .filter(Item::getAvailable)
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : DELIMITER.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
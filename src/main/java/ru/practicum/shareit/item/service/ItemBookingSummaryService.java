@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Даты последнего и следующего бронирования вещи хранятся в item_booking_summary
+ * и обновляются при создании и отклонении бронирований. Когда следующее бронирование
+ * наступает, строка устаревает и пересчитывается по расписанию или после чтения.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public void register(Long itemId) {
+        // persist, а не нативный INSERT: нативный запрос без query spaces сбрасывает все регионы кэша второго уровня
+        entityManager.persist(new ItemBookingSummary(itemId, null, null));
+    }
+
+    @Transactional
+    public void registerAll(Collection<Long> itemIds) {
+        itemIds.forEach(itemId -> entityManager.persist(new ItemBookingSummary(itemId, null, null)));
+    }
+
+    @Transactional
+    public void onBookingCreated(Long itemId, LocalDateTime start) {
+        summaryRepository.offerNextBooking(itemId, start);
+    }
+
+    @Transactional
+    public void onBookingRejected(Long itemId) {
+        summaryRepository.recompute(List.of(itemId), LocalDateTime.now(), State.REJECTED);
+    }
+
+    /**
+     * Пересчитывает даты и возвращает их прочитанными с основной БД. Вызывается после
+     * read-only транзакции чтения, а не из неё: вложенная транзакция заняла бы второе соединение.
+     */
+    @Transactional
+    public Map<Long, ItemBookingDates> refresh(Collection<Long> itemIds) {
+        summaryRepository.recompute(itemIds, LocalDateTime.now(), State.REJECTED);
+        return summaryRepository.findDates(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingDates::itemId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
+    public ItemBookingDates getDates(Long itemId) {
+        return getDates(List.of(itemId)).get(itemId);
+    }
+
+    /**
+     * Только читает: устаревшие даты вызывающий пересчитывает через {@link #refresh}.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingDates> getDates(Collection<Long> itemIds) {
+        Map<Long, ItemBookingDates> byItemId = summaryRepository.findDates(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingDates::itemId, Function.identity()));
+        itemIds.forEach(itemId -> byItemId.putIfAbsent(itemId, ItemBookingDates.empty(itemId)));
+        return byItemId;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-interval:PT1M}")
+    @Transactional
+    public void refreshStale() {
+        int refreshed = summaryRepository.recomputeStale(LocalDateTime.now(), State.REJECTED);
+        if (refreshed > 0) {
+            log.debug("Пересчитаны даты бронирований для {} вещей", refreshed);
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.ItemValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public interface ItemService {
     ItemDto createItem(Long userId, ItemDto itemDto) throws ItemValidationException;
 
+    BulkResultDto createItems(Long userId, InputStream body) throws IOException;
+
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
 
     ItemWithDateDto getItemById(Long userId, Long itemId);
 
+    String getItemETag(Long itemId);
+
     List<ItemWithDateDto> getItemsByOwner(Long userId);
 
     List<ItemDto> searchItems(String text);
@@ -1,28 +1,37 @@
 package ru.practicum.shareit.item.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.bulk.BulkInserter;
+import ru.practicum.shareit.bulk.BulkRowHandler;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
-import ru.practicum.shareit.comment.mapper.CommentMapper;
-import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.ingestion.CommentIngestion;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.exception.ItemNotAvailableException;
 import ru.practicum.shareit.exception.ItemValidationException;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerView;
+import ru.practicum.shareit.item.dto.ItemStamp;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemWithDateMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -35,8 +44,20 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final CommentRepository commentRepository;
-    private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BulkInserter bulkInserter;
+    private final CommentIngestion commentIngestion;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
 
     @Override
     @Transactional
@@ -48,9 +69,46 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = ItemMapper.toItem(itemDto, owner);
         Item savedItem = itemRepository.save(item);
+        itemBookingSummaryService.register(savedItem.getId());
+        itemSearchEngine.index(savedItem);
         return ItemMapper.toItemDto(savedItem);
     }
 
+    @Override
+    public BulkResultDto createItems(Long userId, InputStream body) throws IOException {
+        userService.getUserEntityById(userId);
+        return bulkInserter.insert(body, ItemDto.class, new BulkRowHandler<ItemDto, Item>() {
+            private User owner;
+
+            @Override
+            public void prepare(List<ItemDto> rows) {
+                owner = userRepository.getReferenceById(userId);
+            }
+
+            @Override
+            public String reject(ItemDto row) {
+                return null;
+            }
+
+            @Override
+            public Item toEntity(ItemDto row) {
+                row.setId(null);
+                return ItemMapper.toItem(row, owner);
+            }
+
+            @Override
+            public Long getId(Item item) {
+                return item.getId();
+            }
+
+            @Override
+            public void afterInsert(List<Item> items) {
+                itemBookingSummaryService.registerAll(items.stream().map(Item::getId).toList());
+                items.forEach(itemSearchEngine::index);
+            }
+        });
+    }
+
     @Override
     @Transactional
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
@@ -74,85 +132,99 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        itemSearchEngine.index(updatedItem);
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
     public ItemWithDateDto getItemById(Long userId, Long itemId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NoSuchElementException("Вещь не найдена"));
-        LocalDateTime now = LocalDateTime.now();
-
-        LocalDateTime lastBooking = getLastBooking(itemId, now);
-        LocalDateTime nextBooking = getNextBooking(itemId, now);
+        ItemWithDateDto item = readOnlyTransaction.execute(status -> {
+            Item found = itemRepository.findById(itemId)
+                    .orElseThrow(() -> new NoSuchElementException("Вещь не найдена"));
+            ItemBookingDates dates = itemBookingSummaryService.getDates(itemId);
+            List<CommentDto> comments = loadComments(List.of(itemId)).getOrDefault(itemId, List.of());
+
+            return ItemWithDateMapper.toDtoWithDate(found, dates.lastBooking(), dates.nextBooking(), comments);
+        });
+        refreshStaleDates(List.of(item));
+        return item;
+    }
 
-        return ItemWithDateMapper.toDtoWithDate(item, lastBooking, nextBooking);
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemETag(Long itemId) {
+        ItemStamp stamp = itemRepository.findStamp(itemId)
+                .orElseThrow(() -> new NoSuchElementException("Вещь не найдена"));
+        return stamp.isStaleAt(LocalDateTime.now()) ? null : stamp.toETag(commentIngestion.getLastPendingId(itemId));
     }
 
     @Override
     public List<ItemWithDateDto> getItemsByOwner(Long ownerId) {
-        List<Item> items = itemRepository.findByOwnerId(ownerId);
-        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Object[]> lastBookings = itemRepository.findLastBookings(itemIds, now);
-        List<Object[]> nextBookings = itemRepository.findNextBookings(itemIds, now);
-
-        Map<Long, LocalDateTime> lastBookingMap = lastBookings.stream()
-                .collect(Collectors.toMap(result -> (Long) result[0], result -> (LocalDateTime) result[1]));
-        Map<Long, LocalDateTime> nextBookingMap = nextBookings.stream()
-                .collect(Collectors.toMap(result -> (Long) result[0], result -> (LocalDateTime) result[1]));
-
-        return items.stream()
-                .map(item -> {
-                    LocalDateTime lastBooking = lastBookingMap.get(item.getId());
-                    LocalDateTime nextBooking = nextBookingMap.get(item.getId());
-                    return ItemWithDateMapper.toDtoWithDate(item, lastBooking, nextBooking);
-                })
-                .collect(Collectors.toList());
+        List<ItemWithDateDto> items = readOnlyTransaction.execute(status -> {
+            List<ItemOwnerView> views = itemRepository.findOwnerViews(ownerId);
+            if (views.isEmpty()) {
+                return Collections.<ItemWithDateDto>emptyList();
+            }
+
+            List<Long> itemIds = views.stream().map(ItemOwnerView::id).collect(Collectors.toList());
+            Map<Long, List<CommentDto>> commentMap = loadComments(itemIds);
+
+            return views.stream()
+                    .map(item -> ItemWithDateMapper.toDtoWithDate(item, commentMap.getOrDefault(item.id(), List.of())))
+                    .collect(Collectors.toList());
+        });
+        refreshStaleDates(items);
+        return items;
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> searchItems(String text) {
         if (!StringUtils.hasText(text)) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text).stream()
+        return itemSearchEngine.search(text).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    @Override
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) throws ItemNotAvailableException {
-        User author = userRepository.findById(userId).orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NoSuchElementException("Вещь не найдена"));
-
-        boolean hasBooked = bookingRepository.existsByBooker_IdAndItem_IdAndEndIsBefore(userId, itemId,
-                LocalDateTime.now());
-
-        if (!hasBooked) {
-            throw new ItemNotAvailableException("Пользователь не арендовал вещь или срок аренды не закончился");
-        }
-
-        Comment comment = CommentMapper.toComment(commentDto, item, author);
-        comment.setCreated(LocalDateTime.now());
-        Comment savedComment = commentRepository.save(comment);
-
-        return CommentMapper.toCommentDto(savedComment);
+        return commentIngestion.addComment(userId, itemId, commentDto);
     }
 
-    private LocalDateTime getLastBooking(Long itemId, LocalDateTime now) {
-        return bookingRepository.findLastBooking(itemId, now).stream()
-                .findFirst()
-                .map(Booking::getStart)
-                .orElse(null);
+    // Устаревшие даты пересчитываются уже после read-only транзакции: пересчёт внутри неё
+    // потребовал бы вложенной транзакции и второго соединения из пула на каждый такой запрос
+    private void refreshStaleDates(List<ItemWithDateDto> items) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> stale = items.stream()
+                .filter(item -> item.getNextBooking() != null && !item.getNextBooking().isAfter(now))
+                .map(ItemWithDateDto::getId)
+                .toList();
+        if (stale.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemBookingDates> refreshed = itemBookingSummaryService.refresh(stale);
+        items.stream()
+                .filter(item -> refreshed.containsKey(item.getId()))
+                .forEach(item -> item.setNextBooking(refreshed.get(item.getId()).nextBooking()));
     }
 
-    private LocalDateTime getNextBooking(Long itemId, LocalDateTime now) {
-        return bookingRepository.findNextBooking(itemId, now).stream()
-                .findFirst()
-                .map(Booking::getStart)
-                .orElse(null);
+    // Незаписанные комментарии читаются до запроса к БД: комментарий, записанный между двумя чтениями,
+    // попадёт в оба источника и будет отброшен как дубликат, но не потеряется
+    private Map<Long, List<CommentDto>> loadComments(Collection<Long> itemIds) {
+        Map<Long, List<CommentDto>> pending = commentIngestion.getPending(itemIds);
+        Map<Long, List<CommentDto>> comments = commentRepository.findDtoByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+        pending.forEach((itemId, pendingComments) -> {
+            Map<Long, CommentDto> merged = new LinkedHashMap<>();
+            comments.getOrDefault(itemId, List.of()).forEach(comment -> merged.put(comment.getId(), comment));
+            pendingComments.forEach(comment -> merged.putIfAbsent(comment.getId(), comment));
+            comments.put(itemId, merged.values().stream()
+                    .sorted(Comparator.comparing(CommentDto::getCreated))
+                    .collect(Collectors.toList()));
+        });
+        return comments;
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class JdbcMetricsFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS = "shareit.http.jdbc.statements";
+    static final String DURATION = "shareit.http.jdbc.duration";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        JdbcRequestStats stats = JdbcRequestStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            JdbcRequestStats.end();
+            Tags tags = Tags.of(
+                    "method", request.getMethod(),
+                    "uri", uri(request),
+                    "status", String.valueOf(response.getStatus()));
+            DistributionSummary.builder(STATEMENTS)
+                    .baseUnit("statements")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            Timer.builder(DURATION)
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
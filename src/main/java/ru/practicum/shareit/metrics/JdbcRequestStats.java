@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+class JdbcRequestStats {
+
+    private static final ThreadLocal<JdbcRequestStats> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long nanos;
+    private long startedAt;
+
+    static JdbcRequestStats begin() {
+        JdbcRequestStats stats = new JdbcRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static JdbcRequestStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void beforeQuery() {
+        startedAt = System.nanoTime();
+    }
+
+    void afterQuery(int statementCount) {
+        statements += statementCount;
+        nanos += System.nanoTime() - startedAt;
+    }
+
+    long getStatements() {
+        return statements;
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+}
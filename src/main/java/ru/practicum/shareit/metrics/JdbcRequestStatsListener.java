@@ -0,0 +1,26 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+class JdbcRequestStatsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        JdbcRequestStats stats = JdbcRequestStats.current();
+        if (stats != null) {
+            stats.beforeQuery();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        JdbcRequestStats stats = JdbcRequestStats.current();
+        if (stats != null) {
+            stats.afterQuery(execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), 1) : queryInfoList.size());
+        }
+    }
+}
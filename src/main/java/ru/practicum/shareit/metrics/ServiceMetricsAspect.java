@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String SERVICE_CALLS = "shareit.service.calls";
+
+    private static final String STATE_PARAMETER = "state";
+    private static final String NO_STATE = "none";
+    private static final String UNKNOWN_STATE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(ru.practicum.shareit..service.*ServiceImpl) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long started = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            Timer.builder(SERVICE_CALLS)
+                    .tag("class", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag("state", state(signature, joinPoint.getArgs()))
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String state(MethodSignature signature, Object[] args) {
+        String[] names = signature.getParameterNames();
+        int index = names == null ? -1 : Arrays.asList(names).indexOf(STATE_PARAMETER);
+        if (index < 0) {
+            return NO_STATE;
+        }
+        Object value = args[index];
+        if (value == null) {
+            return State.ALL.name();
+        }
+        // Значение приходит из запроса как есть, поэтому в тег попадают только известные состояния.
+        return Arrays.stream(State.values())
+                .map(State::name)
+                .filter(name -> name.equalsIgnoreCase(value.toString()))
+                .findFirst()
+                .orElse(UNKNOWN_STATE);
+    }
+}
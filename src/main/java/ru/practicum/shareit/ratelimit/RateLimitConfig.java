@@ -0,0 +1,20 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final ObjectProvider<RateLimiter> rateLimiter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        rateLimiter.ifAvailable(limiter -> registry.addInterceptor(new RateLimitInterceptor(limiter)));
+    }
+}
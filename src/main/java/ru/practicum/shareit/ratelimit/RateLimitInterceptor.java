@@ -0,0 +1,39 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.util.HeaderConstants;
+
+/**
+ * Запрос без корректного X-Sharer-User-Id (например, поиск) учитывается по адресу клиента,
+ * чтобы произвольные значения заголовка не давали новый бюджет.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            rateLimiter.acquire(pattern == null ? null : pattern.toString(), caller(request));
+        }
+        return true;
+    }
+
+    private String caller(HttpServletRequest request) {
+        String userId = request.getHeader(HeaderConstants.X_SHARER_USER_ID);
+        if (userId != null) {
+            try {
+                return "user:" + Long.parseLong(userId.trim());
+            } catch (NumberFormatException e) {
+                // учитываем по адресу
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Бюджеты запросов на пользователя. Бюджет с pattern применяется к эндпоинту с таким шаблоном пути,
+ * бюджет default — ко всем остальным.
+ */
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public record RateLimitProperties(long maxKeys, Duration idleTimeout, Map<String, Budget> budgets) {
+
+    public record Budget(String pattern, int capacity, double refillPerSecond) {
+    }
+}
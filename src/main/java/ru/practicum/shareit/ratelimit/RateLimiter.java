@@ -0,0 +1,68 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.RateLimitExceededException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ведра живут в ограниченном кэше и вытесняются после простоя: простаивающее ведро всё равно полное,
+ * поэтому вытеснение не меняет решений.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+    static final String DEFAULT_BUDGET = "default";
+    static final String DECISIONS = "shareit.ratelimit.decisions";
+
+    private final Map<String, String> budgetsByPattern = new HashMap<>();
+    private final Map<String, RateLimitProperties.Budget> budgets;
+    private final Map<String, Counter> allowed = new HashMap<>();
+    private final Map<String, Counter> rejected = new HashMap<>();
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.budgets = properties.budgets();
+        if (!budgets.containsKey(DEFAULT_BUDGET)) {
+            throw new IllegalStateException("Не задан бюджет shareit.rate-limit.budgets." + DEFAULT_BUDGET);
+        }
+        budgets.forEach((name, budget) -> {
+            if (budget.pattern() != null) {
+                budgetsByPattern.put(budget.pattern(), name);
+            }
+            allowed.put(name, meterRegistry.counter(DECISIONS, "budget", name, "outcome", "allowed"));
+            rejected.put(name, meterRegistry.counter(DECISIONS, "budget", name, "outcome", "rejected"));
+        });
+        this.buckets = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys())
+                .expireAfterAccess(properties.idleTimeout())
+                .recordStats()
+                .build(), "rateLimitBuckets");
+    }
+
+    public void acquire(String pattern, String caller) {
+        String name = pattern == null ? DEFAULT_BUDGET : budgetsByPattern.getOrDefault(pattern, DEFAULT_BUDGET);
+        RateLimitProperties.Budget budget = budgets.get(name);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(name, caller),
+                key -> new TokenBucket(budget.capacity(), budget.refillPerSecond(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.get(name).increment();
+            throw new RateLimitExceededException("Слишком много запросов, повторите позже",
+                    TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1);
+        }
+        allowed.get(name).increment();
+    }
+
+    private record BucketKey(String budget, String caller) {
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket в виде GCRA: вместо числа жетонов хранится одно время — когда ведро снова станет полным.
+ * Состояние умещается в AtomicLong, поэтому списание жетона — один CAS без блокировок.
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.capacityNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Списывает жетон. Возвращает 0, если жетон был, иначе сколько наносекунд ждать следующего.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.HeaderConstants;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 
+@Validated
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -24,6 +36,11 @@ public class UserController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResultDto> createUsers(InputStream body) throws IOException {
+        return new ResponseEntity<>(userService.createUsers(body), HttpStatus.OK);
+    }
+
     @PatchMapping("/{userId}")
     public ResponseEntity<UserDto> updateUser(@PathVariable Long userId,
                                               @RequestBody UserDto userDto) {
@@ -38,9 +55,23 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<UserDto> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(required = false) @PositiveOrZero Integer page,
+                                                     @RequestParam(required = false) Long cursor,
+                                                     @RequestParam(required = false) @Positive Integer size) {
+        UserPageDto users = userService.getUsers(page, cursor, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (users.getNext() != null) {
+            headers.set(HeaderConstants.X_NEXT_CURSOR, users.getNext());
+        }
+        return new ResponseEntity<>(users.getUsers(), headers, HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        StreamingResponseBody body = userService.exportUsers()::accept;
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     @DeleteMapping("/{userId}")
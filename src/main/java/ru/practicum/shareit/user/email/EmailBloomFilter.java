@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user.email;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума по строкам: mightContain никогда не ошибается для добавленных
+ * значений и ошибается для остальных с вероятностью, заданной при создании.
+ */
+public class EmailBloomFilter {
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+
+    public EmailBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.clamp((bits + 63) / 64, 1, Integer.MAX_VALUE / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(first + i * second);
+            long mask = 1L << bit;
+            words.getAndAccumulate(bit >>> 6, mask, (word, added) -> word | added);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(first + i * second);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    // FNV-1a с финальным перемешиванием из MurmurHash3
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.user.email;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Отвечает «такого email точно нет» без запроса к БД. Положительный ответ нужно проверять
+ * в БД; email, добавленные другими узлами или во время перестроения, ловит ограничение UQ_USER_EMAIL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailIndex {
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${shareit.users.email-filter.expected-size:1000000}")
+    private long expectedSize;
+
+    @Value("${shareit.users.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile EmailBloomFilter filter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        EmailBloomFilter rebuilt = new EmailBloomFilter(expectedSize, falsePositiveRate);
+        AtomicLong count = new AtomicLong();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT email FROM users");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, row -> {
+            rebuilt.add(row.getString(1));
+            count.incrementAndGet();
+        });
+        filter = rebuilt;
+        log.info("Фильтр email пользователей построен: {} адресов", count.get());
+    }
+
+    public boolean mightExist(String email) {
+        EmailBloomFilter current = filter;
+        return current == null || current.mightContain(email);
+    }
+
+    public void add(String email) {
+        EmailBloomFilter current = filter;
+        if (current != null) {
+            current.add(email);
+        }
+    }
+}
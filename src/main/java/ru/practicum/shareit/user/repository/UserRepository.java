@@ -1,14 +1,26 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    Slice<User> findAllBy(Pageable pageable);
+
+    Slice<User> findByIdGreaterThan(Long id, Pageable pageable);
+
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN ?1")
+    Set<String> findExistingEmails(Collection<String> emails);
 }
\ No newline at end of file
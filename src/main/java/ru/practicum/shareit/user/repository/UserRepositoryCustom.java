@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+
+    Stream<UserDto> streamAll(int fetchSize);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.stream.Stream;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<UserDto> streamAll(int fetchSize) {
+        return entityManager.createQuery("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) " +
+                        "FROM User u ORDER BY u.id", UserDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
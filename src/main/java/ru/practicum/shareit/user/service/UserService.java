@@ -1,18 +1,27 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto createUser(UserDto userDto);
 
+    BulkResultDto createUsers(InputStream body) throws IOException;
+
     UserDto updateUser(Long userId, UserDto userDto);
 
     UserDto getUserById(Long userId);
 
-    List<UserDto> getAllUsers();
+    UserPageDto getUsers(Integer page, Long cursor, Integer size);
+
+    Consumer<OutputStream> exportUsers();
 
     void deleteUser(Long userId);
 
@@ -1,34 +1,118 @@
 package ru.practicum.shareit.user.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.bulk.BulkInserter;
+import ru.practicum.shareit.bulk.BulkRowHandler;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
+import ru.practicum.shareit.user.email.EmailIndex;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.NdjsonWriter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final Sort BY_ID = Sort.by("id");
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BulkInserter bulkInserter;
+    private final PlatformTransactionManager transactionManager;
+    private final NdjsonWriter ndjsonWriter;
+    private final EmailIndex emailIndex;
+
+    @Value("${shareit.pagination.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${shareit.pagination.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${shareit.export.fetch-size:500}")
+    private int exportFetchSize;
 
     @Override
     public UserDto createUser(UserDto userDto) {
-        if (userRepository.findByEmail(userDto.getEmail()).isPresent()) {
+        if (emailIndex.mightExist(userDto.getEmail()) && userRepository.existsByEmail(userDto.getEmail())) {
             throw new IllegalArgumentException("Email уже существует");
         }
 
         User user = UserMapper.toUser(userDto);
-        User savedUser = userRepository.save(user);
+        User savedUser = saveUnique(user);
         return UserMapper.toUserDto(savedUser);
     }
 
+    @Override
+    public BulkResultDto createUsers(InputStream body) throws IOException {
+        return bulkInserter.insert(body, UserDto.class, new BulkRowHandler<UserDto, User>() {
+            private Set<String> existing = Set.of();
+            private Set<String> pending = new HashSet<>();
+
+            @Override
+            public void prepare(List<UserDto> rows) {
+                List<String> candidates = rows.stream()
+                        .map(UserDto::getEmail)
+                        .filter(emailIndex::mightExist)
+                        .toList();
+                existing = candidates.isEmpty() ? Set.of() : userRepository.findExistingEmails(candidates);
+                pending = new HashSet<>();
+            }
+
+            @Override
+            public String reject(UserDto row) {
+                if (existing.contains(row.getEmail()) || !pending.add(row.getEmail())) {
+                    return "Email уже существует";
+                }
+                return null;
+            }
+
+            @Override
+            public User toEntity(UserDto row) {
+                row.setId(null);
+                return UserMapper.toUser(row);
+            }
+
+            @Override
+            public Long getId(User user) {
+                return user.getId();
+            }
+
+            @Override
+            public void afterInsert(List<User> users) {
+                users.forEach(user -> emailIndex.add(user.getEmail()));
+            }
+        });
+    }
+
     @Override
     @Transactional
     public UserDto updateUser(Long userId, UserDto userDto) {
@@ -36,7 +120,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
 
         if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(userDto.getEmail())) {
+            if (emailIndex.mightExist(userDto.getEmail()) && userRepository.existsByEmail(userDto.getEmail())) {
                 throw new IllegalArgumentException("Email уже существует");
             }
             user.setEmail(userDto.getEmail());
@@ -46,11 +130,12 @@ public class UserServiceImpl implements UserService {
             user.setName(userDto.getName());
         }
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveUnique(user);
         return UserMapper.toUserDto(updatedUser);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
@@ -58,10 +143,24 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public UserPageDto getUsers(Integer page, Long cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        Slice<User> slice = cursor != null
+                ? userRepository.findByIdGreaterThan(cursor, PageRequest.of(0, pageSize, BY_ID))
+                : userRepository.findAllBy(PageRequest.of(page == null ? 0 : page, pageSize, BY_ID));
+        List<UserDto> users = slice.map(UserMapper::toUserDto).getContent();
+        String next = slice.hasNext() ? String.valueOf(users.get(users.size() - 1).getId()) : null;
+        return new UserPageDto(users, next);
+    }
+
+    @Override
+    public Consumer<OutputStream> exportUsers() {
+        return out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> writeUsers(out));
+        };
     }
 
     @Override
@@ -70,12 +169,53 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(userId)) {
             throw new NoSuchElementException("Пользователь не найден");
         }
+        // Вещи владельца удаляются каскадом в БД, минуя кэш второго уровня.
+        // Вытеснять нужно после коммита: до него параллельное чтение снова положит в кэш ещё не удалённую вещь
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
         userRepository.deleteById(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictItems(itemIds);
+                }
+            });
+        } else {
+            evictItems(itemIds);
+        }
+    }
+
+    private void evictItems(List<Long> itemIds) {
+        Cache cache = entityManagerFactory.getCache();
+        itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserEntityById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("Пользователь не найден"));
     }
+
+    private void writeUsers(OutputStream out) {
+        try (Stream<UserDto> users = userRepository.streamAll(exportFetchSize)) {
+            ndjsonWriter.write(out, UserDto.class, users, exportFetchSize, () -> {
+            });
+        }
+    }
+
+    private User saveUnique(User user) {
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String message = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (message.toUpperCase().contains(EMAIL_CONSTRAINT)) {
+                throw new IllegalArgumentException("Email уже существует");
+            }
+            throw e;
+        }
+        emailIndex.add(saved.getEmail());
+        return saved;
+    }
 }
\ No newline at end of file
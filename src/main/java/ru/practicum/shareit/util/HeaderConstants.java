@@ -2,4 +2,7 @@ package ru.practicum.shareit.util;
 
 public class HeaderConstants {
     public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String X_NEXT_CURSOR = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
 }
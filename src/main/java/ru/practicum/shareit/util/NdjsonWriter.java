@@ -0,0 +1,47 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Пишет строки выгрузки в формате NDJSON и сбрасывает буфер каждые flushEvery строк,
+ * вызывая после сброса onFlush (например, чтобы очистить контекст персистентности).
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonWriter {
+    private final ObjectMapper objectMapper;
+
+    public <T> void write(OutputStream out, Class<T> type, Stream<T> rows, int flushEvery, Runnable onFlush) {
+        try (SequenceWriter writer = objectMapper.writerFor(type)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)) {
+            int written = 0;
+            for (Iterator<T> iterator = rows.iterator(); iterator.hasNext(); ) {
+                writer.write(iterator.next());
+                if (++written % flushEvery == 0) {
+                    writer.flush();
+                    onFlush.run();
+                }
+            }
+            writer.flush();
+            if (written > 0) {
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
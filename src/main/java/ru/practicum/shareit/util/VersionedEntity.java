@@ -0,0 +1,14 @@
+package ru.practicum.shareit.util;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+import lombok.Getter;
+
+@Getter
+@MappedSuperclass
+public abstract class VersionedEntity {
+    @Version
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,5 @@
+ALTER TABLE idempotency_keys ADD COLUMN request_method VARCHAR(16);
+
+ALTER TABLE idempotency_keys ADD COLUMN request_path VARCHAR(255);
+
+ALTER TABLE idempotency_keys ADD COLUMN request_hash VARCHAR(64);
@@ -1,4 +1,4 @@
-CREATE TABLE IF NOT EXISTS users
+CREATE TABLE users
 (
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name  VARCHAR(255)                            NOT NULL,
@@ -7,7 +7,7 @@ CREATE TABLE IF NOT EXISTS users
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
-CREATE TABLE IF NOT EXISTS items
+CREATE TABLE items
 (
     id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name         VARCHAR(255)                            NOT NULL,
@@ -18,7 +18,7 @@ CREATE TABLE IF NOT EXISTS items
     CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS bookings
+CREATE TABLE bookings
 (
     id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
@@ -31,7 +31,7 @@ CREATE TABLE IF NOT EXISTS bookings
     CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
-CREATE TABLE IF NOT EXISTS comments
+CREATE TABLE comments
 (
     id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text      TEXT                                    NOT NULL,
@@ -0,0 +1,24 @@
+CREATE TABLE item_booking_summary
+(
+    item_id      BIGINT                      NOT NULL,
+    last_booking TIMESTAMP WITHOUT TIME ZONE,
+    next_booking TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_item_booking_summary_next ON item_booking_summary (next_booking);
+
+INSERT INTO item_booking_summary (item_id, last_booking, next_booking)
+SELECT i.id,
+       (SELECT MAX(b.start_date)
+        FROM bookings b
+        WHERE b.item_id = i.id
+          AND b.status <> 'REJECTED'
+          AND b.start_date <= LOCALTIMESTAMP),
+       (SELECT MIN(b.start_date)
+        FROM bookings b
+        WHERE b.item_id = i.id
+          AND b.status <> 'REJECTED'
+          AND b.start_date > LOCALTIMESTAMP)
+FROM items i;
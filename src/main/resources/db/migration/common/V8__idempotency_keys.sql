@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    user_id         BIGINT                      NOT NULL,
+    idempotency_key VARCHAR(255)                NOT NULL,
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(255),
+    body            TEXT,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
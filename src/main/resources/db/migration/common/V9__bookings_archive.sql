@@ -0,0 +1,21 @@
+CREATE TABLE bookings_archive
+(
+    id         BIGINT                      NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT                      NOT NULL,
+    booker_id  BIGINT                      NOT NULL,
+    status     VARCHAR(50)                 NOT NULL,
+    version    BIGINT DEFAULT 0            NOT NULL,
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+    CONSTRAINT fk_booking_archive_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_archive_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date, id);
+
+CREATE INDEX idx_bookings_archive_booker_item_end ON bookings_archive (booker_id, item_id, end_date);
+
+CREATE INDEX idx_bookings_archive_item_start ON bookings_archive (item_id, start_date, id);
+
+CREATE INDEX idx_bookings_end ON bookings (end_date, id);
@@ -0,0 +1,23 @@
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+CREATE INDEX idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+
+CREATE INDEX idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_date);
+
+CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date, id);
+
+CREATE INDEX idx_bookings_item_end ON bookings (item_id, end_date);
+
+ALTER TABLE items DROP CONSTRAINT fk_item_owner;
+
+CREATE INDEX idx_items_owner ON items (owner_id);
+
+ALTER TABLE items
+    ADD CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE;
+
+ALTER TABLE comments DROP CONSTRAINT fk_comment_item;
+
+CREATE INDEX idx_comments_item ON comments (item_id);
+
+ALTER TABLE comments
+    ADD CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE;
@@ -0,0 +1,9 @@
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+
+CREATE SEQUENCE items_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE items_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM items);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
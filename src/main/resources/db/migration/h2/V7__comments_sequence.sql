@@ -0,0 +1,4 @@
+CREATE SEQUENCE comments_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM comments);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
@@ -0,0 +1,14 @@
+-- CONCURRENTLY не блокирует запись; Flyway выполняет такую миграцию вне транзакции
+CREATE INDEX CONCURRENTLY idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+CREATE INDEX CONCURRENTLY idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+
+CREATE INDEX CONCURRENTLY idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_date);
+
+CREATE INDEX CONCURRENTLY idx_bookings_item_start ON bookings (item_id, start_date, id);
+
+CREATE INDEX CONCURRENTLY idx_bookings_item_end ON bookings (item_id, end_date);
+
+CREATE INDEX CONCURRENTLY idx_items_owner ON items (owner_id);
+
+CREATE INDEX CONCURRENTLY idx_comments_item ON comments (item_id);
@@ -0,0 +1,20 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Существующие пересечения не дадут создать ограничение: из каждой пары пересекающихся активных бронирований
+-- отклоняется младшее — WAITING уступает APPROVED, при равном статусе остаётся более раннее (start_date, id)
+UPDATE bookings b
+SET status = 'REJECTED'
+WHERE b.status IN ('WAITING', 'APPROVED')
+  AND EXISTS (SELECT 1
+              FROM bookings o
+              WHERE o.item_id = b.item_id
+                AND o.id <> b.id
+                AND o.status IN ('WAITING', 'APPROVED')
+                AND tsrange(o.start_date, o.end_date) && tsrange(b.start_date, b.end_date)
+                AND (o.status = 'APPROVED' AND b.status = 'WAITING'
+                    OR o.status = b.status AND (o.start_date, o.id) < (b.start_date, b.id)));
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_booking_item_period
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
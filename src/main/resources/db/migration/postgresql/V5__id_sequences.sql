@@ -0,0 +1,9 @@
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 1, false) FROM users;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+CREATE SEQUENCE items_seq START WITH 1 INCREMENT BY 50 OWNED BY items.id;
+SELECT setval('items_seq', COALESCE(MAX(id), 0) + 1, false) FROM items;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
@@ -0,0 +1,4 @@
+CREATE SEQUENCE comments_seq START WITH 1 INCREMENT BY 50 OWNED BY comments.id;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 1, false) FROM comments;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
@@ -0,0 +1,174 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "etag-owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "etag-booker-" + System.nanoTime() + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+    }
+
+    @Test
+    void unchangedItemIsNotModifiedWithSingleQuery() throws Exception {
+        String eTag = itemETag();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void itemETagChangesOnUpdateAndComment() throws Exception {
+        String initial = itemETag();
+
+        mockMvc.perform(patch("/items/{itemId}", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"updated\"}"))
+                .andExpect(status().isOk());
+        String updated = itemETag();
+        assertNotEquals(initial, updated);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, State.APPROVED));
+        mockMvc.perform(post("/items/{itemId}/comment", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"good\"}"))
+                .andExpect(status().isCreated());
+        String commented = itemETag();
+        assertNotEquals(updated, commented);
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void itemETagChangesWhenCommentAuthorIsRenamed() throws Exception {
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, State.APPROVED));
+        mockMvc.perform(post("/items/{itemId}/comment", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"good\"}"))
+                .andExpect(status().isCreated());
+        String commented = itemETag();
+
+        mockMvc.perform(patch("/users/{userId}", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, commented))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName").value("renamed"));
+    }
+
+    @Test
+    void bookingETagChangesOnApprovalAndIsHiddenFromStrangers() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker,
+                State.WAITING));
+        String initial = bookingETag(booking.getId(), booker.getId());
+
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, initial))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+        assertNotEquals(initial, bookingETag(booking.getId(), booker.getId()));
+
+        User stranger = userRepository.save(new User(null, "stranger", "etag-stranger-" + System.nanoTime() + "@mail.ru"));
+        mockMvc.perform(get("/bookings/{bookingId}", booking.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, stranger.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, initial))
+                .andExpect(status().isForbidden());
+    }
+
+    private String itemETag() throws Exception {
+        String eTag = mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+
+    private String bookingETag(Long bookingId, Long userId) throws Exception {
+        String eTag = mockMvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .header(HeaderConstants.X_SHARER_USER_ID, userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        return eTag;
+    }
+}
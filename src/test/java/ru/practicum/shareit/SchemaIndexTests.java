@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JdbcTest
+class SchemaIndexTests {
+
+    private static final String AFTER_CURSOR = " AND b.start_date <= TIMESTAMP '2024-05-01 00:00:00'"
+            + " AND (b.start_date < TIMESTAMP '2024-05-01 00:00:00' OR b.id < 5000)"
+            + " ORDER BY b.start_date DESC, b.id DESC LIMIT 10";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO users (id, name, email) "
+                + "SELECT x, 'user' || x, 'user' || x || '@mail.ru' FROM SYSTEM_RANGE(1, 100)");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) "
+                + "SELECT x, 'item' || x, 'description', TRUE, MOD(x, 100) + 1 FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT x, DATEADD('HOUR', x, TIMESTAMP '2024-01-01 00:00:00'), "
+                + "DATEADD('HOUR', x + 2, TIMESTAMP '2024-01-01 00:00:00'), MOD(x, 1000) + 1, MOD(x, 100) + 1, "
+                + "CASE MOD(x, 3) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'APPROVED' ELSE 'REJECTED' END "
+                + "FROM SYSTEM_RANGE(1, 10000)");
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) "
+                + "SELECT x, 'text', MOD(x, 1000) + 1, MOD(x, 100) + 1, NOW() FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{1}")
+    @CsvSource(delimiter = '|', value = {
+            "SELECT * FROM bookings b WHERE b.booker_id = 1" + AFTER_CURSOR
+                    + "|idx_bookings_booker_start",
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.end_date < NOW()" + AFTER_CURSOR
+                    + "|idx_bookings_booker_start",
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.status = 'WAITING'" + AFTER_CURSOR
+                    + "|idx_bookings_booker_status_start",
+            "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = 1" + AFTER_CURSOR
+                    + "|idx_items_owner",
+            "SELECT COUNT(*) FROM bookings b WHERE b.booker_id = 1 AND b.item_id = 2 AND b.end_date < NOW()"
+                    + "|idx_bookings_booker_item_end",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.start_date > NOW() ORDER BY b.start_date"
+                    + "|idx_bookings_item_start",
+            "SELECT b.start_date, b.end_date FROM bookings b WHERE b.item_id = 1 "
+                    + "AND b.status IN ('WAITING', 'APPROVED') AND b.end_date > NOW()"
+                    + "|idx_bookings_item_end",
+            "SELECT id FROM bookings b WHERE b.end_date < TIMESTAMP '2024-02-01 00:00:00' "
+                    + "ORDER BY b.end_date, b.id FETCH FIRST 1000 ROWS ONLY"
+                    + "|idx_bookings_end",
+            "SELECT * FROM bookings_archive b WHERE b.booker_id = 1" + AFTER_CURSOR
+                    + "|idx_bookings_archive_booker_start",
+            "SELECT * FROM items i WHERE i.owner_id = 1"
+                    + "|idx_items_owner",
+            "SELECT * FROM comments c WHERE c.item_id = 1"
+                    + "|idx_comments_item"
+    })
+    void queryUsesIndex(String query, String index) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+
+        assertTrue(plan.toLowerCase(Locale.ROOT).contains(index), () -> "Индекс " + index + " не используется:\n" + plan);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest
+class BookingApprovalConcurrencyTests {
+
+    private static final int REQUESTS = 200;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "approve-owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "approve-booker-" + System.nanoTime() + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+    }
+
+    @Test
+    void exactlyOneConcurrentTransitionWins() throws Exception {
+        Booking booking = booking(0);
+
+        List<Throwable> results = runConcurrently(i -> bookingService.approveBooking(owner.getId(), booking.getId(),
+                i % 2 == 0));
+
+        List<Throwable> failures = results.stream().filter(result -> result != null).toList();
+        assertEquals(REQUESTS - 1, failures.size());
+        failures.forEach(failure -> assertInstanceOf(IllegalStateException.class, failure));
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void unrelatedBookingsAreApprovedInParallel() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            bookings.add(booking(i));
+        }
+
+        List<Throwable> results = runConcurrently(i -> bookingService.approveBooking(owner.getId(),
+                bookings.get(i).getId(), true));
+
+        assertEquals(0, results.stream().filter(result -> result != null).count());
+        bookings.forEach(booking -> assertEquals(State.APPROVED,
+                bookingRepository.findById(booking.getId()).orElseThrow().getStatus()));
+    }
+
+    private Booking booking(int offset) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).plusHours(offset);
+        return bookingRepository.save(new Booking(null, start, start.plusMinutes(30), item, booker, State.WAITING));
+    }
+
+    private List<Throwable> runConcurrently(Approval approval) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Throwable>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        approval.run(index);
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            startSignal.countDown();
+        }
+        List<Throwable> results = new ArrayList<>();
+        for (Future<Throwable> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private interface Approval {
+        void run(int index);
+    }
+}
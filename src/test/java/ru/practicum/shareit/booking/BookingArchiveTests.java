@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingArchiveTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking old;
+    private Booking recent;
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "archive-owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "archive-booker-" + System.nanoTime() + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+        LocalDateTime now = LocalDateTime.now();
+
+        old = save(now.minusDays(200), now.minusDays(199), State.APPROVED);
+        recent = save(now.minusDays(10), now.minusDays(9), State.APPROVED);
+        future = save(now.plusDays(1), now.plusDays(2), State.WAITING);
+
+        bookingArchiver.archive();
+    }
+
+    @Test
+    void finishedBookingsOlderThanHorizonAreMoved() {
+        assertFalse(bookingRepository.existsById(old.getId()));
+        assertTrue(archivedBookingRepository.existsById(old.getId()));
+        assertTrue(bookingRepository.existsById(recent.getId()));
+        assertTrue(bookingRepository.existsById(future.getId()));
+    }
+
+    @Test
+    void listingsSkipArchiveUnlessHistoryIsRequested() {
+        assertEquals(List.of(recent.getId()), ids(bookingService.getAllBookings(booker.getId(), "PAST", null, null, false)));
+        assertEquals(List.of(recent.getId(), old.getId()),
+                ids(bookingService.getAllBookings(booker.getId(), "PAST", null, null, true)));
+        assertEquals(List.of(future.getId(), recent.getId(), old.getId()),
+                ids(bookingService.getBookingsForOwner(owner.getId(), "ALL", null, null, true)));
+    }
+
+    @Test
+    void historyPagesAcrossHotAndArchivedBookings() throws Exception {
+        BookingPageDto first = bookingService.getBookingsForOwner(owner.getId(), "ALL", null, 2, true);
+        assertEquals(List.of(future.getId(), recent.getId()), ids(first));
+        assertNotNull(first.getNext());
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId())
+                        .param("history", "true")
+                        .param("size", "2")
+                        .param("cursor", first.getNext()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(old.getId()));
+    }
+
+    @Test
+    void archivedBookingStaysReadableAndCountsForComments() throws Exception {
+        BookingDto booking = bookingService.getBookingById(booker.getId(), old.getId());
+        assertEquals(State.APPROVED, booking.getStatus());
+        assertNotNull(bookingService.getBookingETag(owner.getId(), old.getId()));
+
+        User archivedOnly = userRepository.save(new User(null, "guest", "archive-guest-" + System.nanoTime() + "@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.minusDays(300), now.minusDays(299), item, archivedOnly,
+                State.APPROVED));
+        bookingArchiver.archive();
+
+        CommentDto comment = new CommentDto();
+        comment.setText("всё отлично");
+        assertNotNull(itemService.addComment(archivedOnly.getId(), item.getId(), comment).getId());
+    }
+
+    // Копия в архиве при живой строке в bookings: так видят две таблицы запросы, между которыми прошла пачка архивации
+    @Test
+    void bookingSeenInBothTablesIsListedAndExportedOnce() throws Exception {
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, version) "
+                        + "SELECT id, start_date, end_date, item_id, booker_id, status, version FROM bookings WHERE id = ?",
+                recent.getId());
+
+        assertEquals(List.of(future.getId(), recent.getId(), old.getId()),
+                ids(bookingService.getBookingsForOwner(owner.getId(), "ALL", null, null, true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingService.exportBookingsForOwner(owner.getId(), "ALL", true).accept(out);
+        List<Long> exported = out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, BookingDto.class).getId();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertEquals(List.of(future.getId(), recent.getId(), old.getId()), exported);
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, State status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+
+    private List<Long> ids(BookingPageDto page) {
+        return page.getBookings().stream().map(BookingDto::getId).toList();
+    }
+}
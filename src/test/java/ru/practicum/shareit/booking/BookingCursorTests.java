@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingCursorTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User booker;
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "owner", "cursor-owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "cursor-booker-" + System.nanoTime() + "@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> bookings = IntStream.range(0, 5)
+                .mapToObj(i -> bookingRepository.save(new Booking(null, start.plusDays(i % 3), start.plusDays(10),
+                        item, booker, State.WAITING)))
+                .toList();
+        newestFirst = bookings.stream()
+                .sorted((a, b) -> a.getStart().equals(b.getStart())
+                        ? b.getId().compareTo(a.getId())
+                        : b.getStart().compareTo(a.getStart()))
+                .map(Booking::getId)
+                .toList();
+    }
+
+    @Test
+    void cursorEncodesAndDecodesStartAndId() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15), 42L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+        assertEquals(BookingCursor.first(), BookingCursor.decode(BookingCursor.first().encode()));
+    }
+
+    @Test
+    void pagesFollowNextCursorUntilTheEnd() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String next = null;
+        int pages = 0;
+        do {
+            MockHttpServletResponse response = bookings(next, 2);
+            seen.addAll(ids(response));
+            next = response.getHeader(HeaderConstants.X_NEXT_CURSOR);
+            pages++;
+        } while (next != null);
+
+        assertEquals(newestFirst, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void firstCursorIsTheSameAsNoCursor() throws Exception {
+        MockHttpServletResponse withoutCursor = bookings(null, 10);
+        MockHttpServletResponse withFirst = bookings(BookingCursor.first().encode(), 10);
+
+        assertEquals(newestFirst, ids(withoutCursor));
+        assertEquals(ids(withoutCursor), ids(withFirst));
+        assertNull(withFirst.getHeader(HeaderConstants.X_NEXT_CURSOR));
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> BookingCursor.decode("bm8tc2VwYXJhdG9y"));
+
+        for (String cursor : List.of("%%%not-base64", "bm8tc2VwYXJhdG9y", "bm90LWEtZGF0ZXwx")) {
+            mockMvc.perform(get("/bookings")
+                            .header(HeaderConstants.X_SHARER_USER_ID, booker.getId())
+                            .param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private MockHttpServletResponse bookings(String cursor, int size) throws Exception {
+        MockHttpServletRequestBuilder request = get("/bookings")
+                .header(HeaderConstants.X_SHARER_USER_ID, booker.getId())
+                .param("size", String.valueOf(size));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private List<Long> ids(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readValue(response.getContentAsString(), new TypeReference<List<BookingDto>>() {
+                })
+                .stream()
+                .map(BookingDto::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.export.fetch-size=7")
+@AutoConfigureMockMvc
+class BookingExportTests {
+
+    private static final int BOOKINGS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void exportsOwnerBookingsAsNdjsonNewestFirst() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "export-owner-" + System.nanoTime() + "@mail.ru"));
+        User booker = userRepository.save(new User(null, "booker", "export-booker-" + System.nanoTime() + "@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> saved = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            saved.add(bookingRepository.save(new Booking(null, start.plusHours(i), start.plusHours(i).plusMinutes(30),
+                    item, booker, i % 3 == 0 ? State.REJECTED : State.WAITING)));
+        }
+
+        MvcResult async = mockMvc.perform(get("/bookings/owner/export")
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), async.getRequest().getAsyncContext().getTimeout());
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<Long> expected = saved.stream()
+                .sorted(Comparator.comparing(Booking::getStart).reversed())
+                .map(Booking::getId)
+                .toList();
+        assertEquals(expected, ids(body));
+        assertEquals(booker.getId(), objectMapper.readValue(body.lines().findFirst().orElseThrow(), BookingDto.class)
+                .getBooker().getId());
+
+        MvcResult rejected = mockMvc.perform(get("/bookings/export")
+                        .param("state", "REJECTED")
+                        .header(HeaderConstants.X_SHARER_USER_ID, booker.getId()))
+                .andReturn();
+        String rejectedBody = mockMvc.perform(asyncDispatch(rejected)).andReturn().getResponse().getContentAsString();
+        assertEquals(BOOKINGS / 3, ids(rejectedBody).size());
+    }
+
+    @Test
+    void rejectsUnknownUserBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/bookings/owner/export").header(HeaderConstants.X_SHARER_USER_ID, Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<Long> ids(String body) {
+        return body.lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, BookingDto.class).getId();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ItemNotAvailableException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+class BookingOverlapTests {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "overlap-owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "overlap-booker-" + System.nanoTime() + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+        start = LocalDateTime.now().plusDays(10).withNano(0);
+    }
+
+    @Test
+    void overlappingBookingIsRejected() throws Exception {
+        create(start, start.plusDays(3));
+
+        assertThrows(ItemNotAvailableException.class, () -> create(start.plusDays(1), start.plusDays(2)));
+        assertThrows(ItemNotAvailableException.class, () -> create(start.minusDays(1), start.plusDays(1)));
+        create(start.plusDays(3), start.plusDays(4));
+    }
+
+    @Test
+    void uncommittedReservationSurvivesInvalidationByApproval() throws Exception {
+        BookingDto earlier = create(start.plusDays(20), start.plusDays(21));
+
+        AtomicBoolean blockNext = new AtomicBoolean(true);
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (blockNext.compareAndSet(true, false)) {
+                reserved.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(itemBookingSummaryService).onBookingCreated(anyLong(), any());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<BookingDto> first = executor.submit(() -> create(start, start.plusDays(3)));
+            assertTrue(reserved.await(10, TimeUnit.SECONDS));
+
+            bookingService.approveBooking(owner.getId(), earlier.getId(), true);
+            assertThrows(ItemNotAvailableException.class, () -> create(start.plusDays(1), start.plusDays(2)));
+
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, bookingRepository.findPeriods(item.getId(), List.of(State.WAITING, State.APPROVED),
+                start).stream().filter(period -> ((LocalDateTime) period[0]).isBefore(start.plusDays(3))).count());
+    }
+
+    @Test
+    void constraintViolationIsReportedAsConflictAndRolledBack() throws Exception {
+        jdbcTemplate.execute("ALTER TABLE bookings ADD CONSTRAINT uq_test_booking_item_start UNIQUE (item_id, start_date)");
+        try {
+            jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                            + "VALUES (?, ?, ?, ?, 'REJECTED')",
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), item.getId(), booker.getId());
+
+            assertThrows(ItemNotAvailableException.class, () -> create(start, start.plusDays(2)));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE bookings DROP CONSTRAINT uq_test_booking_item_start");
+        }
+
+        create(start, start.plusDays(2));
+    }
+
+    private BookingDto create(LocalDateTime from, LocalDateTime to) throws ItemNotAvailableException {
+        BookingDto booking = new BookingDto();
+        booking.setItemId(item.getId());
+        booking.setStart(from);
+        booking.setEnd(to);
+        return bookingService.createBooking(booker.getId(), booking);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingQueryCountTests {
+
+    private static final int ITEMS = 5;
+    private static final int BOOKINGS_PER_ITEM = 4;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker-" + System.nanoTime() + "@mail.ru"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(new Item(null, "item" + i, "description", true, owner, List.of()));
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                bookingRepository.save(new Booking(null, start.plusDays(j), start.plusDays(j).plusHours(1),
+                        item, booker, State.WAITING));
+            }
+        }
+    }
+
+    @Test
+    void ownerBookingsAreLoadedWithoutLazyInitialization() {
+        Statistics statistics = statistics();
+
+        int size = bookingService.getBookingsForOwner(owner.getId(), "ALL", null, null, false).getBookings().size();
+
+        assertEquals(ITEMS * BOOKINGS_PER_ITEM, size);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookerBookingsAreLoadedWithoutLazyInitialization() {
+        Statistics statistics = statistics();
+
+        int size = bookingService.getAllBookings(booker.getId(), "FUTURE", null, null, false).getBookings().size();
+
+        assertEquals(ITEMS * BOOKINGS_PER_ITEM, size);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookingAccessIsCheckedWithOneProjectionAndThenCached() throws Exception {
+        Booking booking = bookingRepository.findAll().getLast();
+        Statistics statistics = statistics();
+
+        bookingService.getBookingById(owner.getId(), booking.getId());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        bookingService.getBookingById(booker.getId(), booking.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        User stranger = userRepository.save(new User(null, "stranger", "stranger-" + System.nanoTime() + "@mail.ru"));
+        assertThrows(AccessDeniedException.class, () -> bookingService.getBookingById(stranger.getId(), booking.getId()));
+    }
+
+    @Test
+    void approvalChecksOwnershipWithoutLoadingTheBooking() throws Exception {
+        Booking booking = bookingRepository.findAll().getLast();
+        bookingService.getBookingById(booker.getId(), booking.getId());
+        Statistics statistics = statistics();
+
+        assertEquals(State.APPROVED, bookingService.approveBooking(owner.getId(), booking.getId(), true).getStatus());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertThrows(IllegalStateException.class,
+                () -> bookingService.approveBooking(owner.getId(), booking.getId(), false));
+    }
+
+    private Statistics statistics() {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class BookingStateFilterTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private Map<State, List<Booking>> expected;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker-" + System.nanoTime() + "@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking past = save(item, now.minusDays(3), now.minusDays(2), State.APPROVED);
+        Booking current = save(item, now.minusDays(1), now.plusDays(1), State.APPROVED);
+        Booking waiting = save(item, now.plusDays(2), now.plusDays(3), State.WAITING);
+        Booking rejected = save(item, now.plusDays(2), now.plusDays(3), State.REJECTED);
+
+        expected = Map.of(
+                State.ALL, List.of(past, current, waiting, rejected),
+                State.CURRENT, List.of(current),
+                State.PAST, List.of(past),
+                State.FUTURE, List.of(waiting, rejected),
+                State.WAITING, List.of(waiting),
+                State.REJECTED, List.of(rejected),
+                State.APPROVED, List.of(past, current));
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void filtersBookerBookingsByStateNewestFirst(State state) {
+        List<BookingDto> bookings = bookingService.getAllBookings(booker.getId(), state.name(), null, null, false)
+                .getBookings();
+
+        assertEquals(expectedIds(state), ids(bookings));
+    }
+
+    @ParameterizedTest
+    @EnumSource(State.class)
+    void filtersOwnerBookingsByStateNewestFirst(State state) {
+        List<BookingDto> bookings = bookingService.getBookingsForOwner(owner.getId(), state.name().toLowerCase(),
+                null, null, false).getBookings();
+
+        assertEquals(expectedIds(state), ids(bookings));
+    }
+
+    private Booking save(Item item, LocalDateTime start, LocalDateTime end, State status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+
+    private List<Long> expectedIds(State state) {
+        return expected.get(state).stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .toList();
+    }
+
+    private List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).toList();
+    }
+}
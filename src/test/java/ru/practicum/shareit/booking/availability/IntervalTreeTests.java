@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTests {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void intervalsAreHalfOpen() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(at(10), at(20));
+
+        assertTrue(tree.overlaps(at(15), at(16)));
+        assertTrue(tree.overlaps(at(5), at(11)));
+        assertTrue(tree.overlaps(at(19), at(30)));
+        assertTrue(tree.overlaps(at(0), at(30)));
+        assertFalse(tree.overlaps(at(20), at(30)));
+        assertFalse(tree.overlaps(at(0), at(10)));
+    }
+
+    @Test
+    void removeDeletesOnlyTheExactInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(at(10), at(20));
+        tree.insert(at(30), at(40));
+
+        assertFalse(tree.remove(at(10), at(21)));
+        assertTrue(tree.remove(at(10), at(20)));
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(at(10), at(20)));
+        assertTrue(tree.overlaps(at(35), at(36)));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomIntervals() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<int[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(10_000);
+            int[] interval = {start, start + 1 + random.nextInt(50)};
+            if (random.nextInt(4) == 0 && !intervals.isEmpty()) {
+                int[] removed = intervals.remove(random.nextInt(intervals.size()));
+                assertTrue(tree.remove(at(removed[0]), at(removed[1])));
+            } else {
+                intervals.add(interval);
+                tree.insert(at(interval[0]), at(interval[1]));
+            }
+
+            int queryStart = random.nextInt(10_000);
+            int queryEnd = queryStart + 1 + random.nextInt(50);
+            boolean expected = intervals.stream().anyMatch(it -> it[0] < queryEnd && it[1] > queryStart);
+            assertEquals(expected, tree.overlaps(at(queryStart), at(queryEnd)));
+        }
+        assertEquals(intervals.size(), tree.size());
+    }
+
+    private static LocalDateTime at(int hours) {
+        return T0.plusHours(hours);
+    }
+}
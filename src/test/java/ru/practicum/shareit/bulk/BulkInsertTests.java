@@ -0,0 +1,142 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.bulk.dto.BulkRowResult;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.bulk.batch-size=50",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class BulkInsertTests {
+
+    private static final int USERS = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertsUsersInBatchesAndReportsRowErrors() throws Exception {
+        String prefix = "bulk-" + System.nanoTime();
+        String body = IntStream.range(0, USERS)
+                .mapToObj(i -> switch (i) {
+                    case 5 -> "{\"name\":\"user\",\"email\":\"not-an-email\"}";
+                    case 7 -> "{\"name\":\"user\",\"email\":\"" + prefix + "-3@mail.ru\"}";
+                    case 9 -> "{\"name\":{},\"email\":\"" + prefix + "-9@mail.ru\"}";
+                    default -> "{\"name\":\"user\",\"email\":\"" + prefix + "-" + i + "@mail.ru\"}";
+                })
+                .collect(Collectors.joining(",", "[", "]"));
+        Statistics statistics = statistics();
+
+        BulkResultDto result = postBulk("/users/bulk", MediaType.APPLICATION_JSON, body, null);
+
+        assertEquals(USERS - 3, result.created());
+        assertEquals(3, result.failed());
+        assertEquals(USERS, result.results().size());
+        List<Integer> failed = result.results().stream()
+                .filter(row -> !row.isCreated())
+                .map(BulkRowResult::index)
+                .toList();
+        assertEquals(List.of(5, 7, 9), failed);
+        assertEquals(USERS - 3, result.results().stream().map(BulkRowResult::id).filter(Objects::nonNull)
+                .distinct().count());
+        assertEquals(USERS - 3, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void retriesFailedBatchRowByRow() throws Exception {
+        String prefix = "retry-" + System.nanoTime();
+        String tooLong = "x".repeat(300);
+        String body = IntStream.range(0, 10)
+                .mapToObj(i -> "{\"name\":\"" + (i == 4 ? tooLong : "user") + "\",\"email\":\""
+                        + prefix + "-" + i + "@mail.ru\"}")
+                .collect(Collectors.joining("\n"));
+
+        BulkResultDto result = postBulk("/users/bulk", MediaType.APPLICATION_NDJSON, body, null);
+
+        assertEquals(9, result.created());
+        BulkRowResult failed = result.results().get(4);
+        assertNull(failed.id());
+        assertNotNull(failed.error());
+        assertTrue(userRepository.findByEmail(prefix + "-5@mail.ru").isPresent());
+    }
+
+    @Test
+    void insertsItemsWithBookingSummaries() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "bulk-owner-" + System.nanoTime() + "@mail.ru"));
+        String body = IntStream.range(0, 60)
+                .mapToObj(i -> i == 10
+                        ? "{\"name\":\"\",\"description\":\"d\",\"available\":true}"
+                        : "{\"name\":\"bulk item " + i + "\",\"description\":\"d\",\"available\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        BulkResultDto result = postBulk("/items/bulk", MediaType.APPLICATION_JSON, body, owner.getId());
+
+        assertEquals(59, result.created());
+        assertEquals(10, result.results().stream().filter(row -> !row.isCreated()).findFirst().orElseThrow().index());
+        List<Long> ids = result.results().stream().map(BulkRowResult::id).filter(Objects::nonNull).toList();
+        assertEquals(59, summaryRepository.findDates(ids).size());
+        assertEquals(59, itemService.getItemsByOwner(owner.getId()).size());
+    }
+
+    private BulkResultDto postBulk(String path, MediaType contentType, String body, Long userId) throws Exception {
+        var request = post(path).contentType(contentType).content(body);
+        if (userId != null) {
+            request.header(HeaderConstants.X_SHARER_USER_ID, userId);
+        }
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, BulkResultDto.class);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
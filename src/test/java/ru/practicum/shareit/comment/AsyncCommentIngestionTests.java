@@ -0,0 +1,208 @@
+package ru.practicum.shareit.comment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.ingestion.AsyncCommentIngestion;
+import ru.practicum.shareit.comment.ingestion.CommentBatchWriter;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemWithDateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.comments.ingestion=async",
+        "shareit.comments.queue-capacity=2"
+})
+@AutoConfigureMockMvc
+class AsyncCommentIngestionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AsyncCommentIngestion commentIngestion;
+
+    @SpyBean
+    private CommentBatchWriter commentBatchWriter;
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private User owner;
+    private User author;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "ingest-owner-" + System.nanoTime() + "@mail.ru"));
+        author = userRepository.save(new User(null, "author", "ingest-author-" + System.nanoTime() + "@mail.ru"));
+        item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), item, author, State.APPROVED));
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return invocation.callRealMethod();
+        }).when(commentBatchWriter).write(anyList());
+    }
+
+    @Test
+    void queuedCommentIsReadableButNotDurableUntilWritten() throws Exception {
+        Long id = addCommentAndReadId("first");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        ItemWithDateDto pending = getItem();
+        assertEquals(List.of("first"), pending.getComments().stream().map(CommentDto::getText).toList());
+        assertFalse(commentRepository.existsById(id), "до записи комментарий живёт только в памяти процесса");
+        String pendingETag = getItemETag();
+
+        release.countDown();
+        awaitWritten(id);
+
+        assertEquals(1, getItem().getComments().size());
+        assertNotEquals(pendingETag, getItemETag());
+    }
+
+    @Test
+    void fullQueueIsRejectedAndShutdownDrainsIt() throws Exception {
+        Long first = addCommentAndReadId("first");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        Long second = addCommentAndReadId("second");
+        Long third = addCommentAndReadId("third");
+
+        addComment("fourth")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        release.countDown();
+        commentIngestion.stop();
+        try {
+            assertTrue(commentRepository.existsById(first));
+            assertTrue(commentRepository.existsById(second));
+            assertTrue(commentRepository.existsById(third));
+            assertTrue(commentIngestion.getPending(List.of(item.getId())).isEmpty());
+            addComment("after stop").andExpect(status().isServiceUnavailable());
+        } finally {
+            commentIngestion.start();
+        }
+    }
+
+    @Test
+    void commentRacingShutdownIsWrittenOrRejected() throws Exception {
+        release.countDown();
+        CountDownLatch allocating = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            allocating.countDown();
+            stopped.await();
+            return invocation.callRealMethod();
+        }).when(commentBatchWriter).nextId();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MvcResult> racing = executor.submit(() -> addComment("racing").andReturn());
+            assertTrue(allocating.await(5, TimeUnit.SECONDS));
+            commentIngestion.stop();
+            stopped.countDown();
+
+            MockHttpServletResponse response = racing.get(5, TimeUnit.SECONDS).getResponse();
+            if (response.getStatus() == HttpStatus.CREATED.value()) {
+                Long id = objectMapper.readValue(response.getContentAsString(), CommentDto.class).getId();
+                assertTrue(commentRepository.existsById(id), "принятый комментарий должен быть записан");
+            } else {
+                assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+            }
+            assertTrue(commentIngestion.getPending(List.of(item.getId())).isEmpty());
+        } finally {
+            executor.shutdownNow();
+            commentIngestion.start();
+        }
+    }
+
+    private ResultActions addComment(String text) throws Exception {
+        return mockMvc.perform(post("/items/{itemId}/comment", item.getId())
+                .header(HeaderConstants.X_SHARER_USER_ID, author.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"" + text + "\"}"));
+    }
+
+    private Long addCommentAndReadId(String text) throws Exception {
+        String body = addComment(text).andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, CommentDto.class).getId();
+    }
+
+    private ItemWithDateDto getItem() throws Exception {
+        String body = mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ItemWithDateDto.class);
+    }
+
+    private String getItemETag() throws Exception {
+        return mockMvc.perform(get("/items/{itemId}", item.getId())
+                        .header(HeaderConstants.X_SHARER_USER_ID, owner.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void awaitWritten(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!commentRepository.existsById(id) || !commentIngestion.getPending(List.of(item.getId())).isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "комментарий не записан за 5 секунд");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.jdbc-url=" + ReplicaRoutingTests.REPLICA_URL,
+        "shareit.datasource.replica.username=sa",
+        "shareit.datasource.replica.password="
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    static void migrateReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void readsGoToReplicaAndWritesToPrimary() throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"primary\",\"email\":\"primary@mail.ru\"}"))
+                .andExpect(status().isCreated());
+        replica.update("INSERT INTO users (id, name, email) VALUES (1000, 'replica', 'replica@mail.ru')");
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].email", hasItem("replica@mail.ru")))
+                .andExpect(jsonPath("$[*].email", not(hasItem("primary@mail.ru"))));
+
+        Long primaryId = userRepository.findByEmail("primary@mail.ru").orElseThrow().getId();
+        mockMvc.perform(patch("/users/{userId}", primaryId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("renamed"));
+    }
+}
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.idempotency.dto.RequestFingerprint;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyTests {
+    private static final ItemDto DRILL = new ItemDto(null, "drill", "cordless drill", true, null);
+    private static final RequestFingerprint FINGERPRINT = new RequestFingerprint("POST", "/items", "other");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @SpyBean
+    private ItemService itemService;
+
+    @SpyBean
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "idem-owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "idem-booker-" + System.nanoTime() + "@mail.ru"));
+    }
+
+    @Test
+    void memoryStoreIsUsedByDefault() {
+        assertInstanceOf(InMemoryIdempotencyStore.class, idempotencyStore);
+    }
+
+    @Test
+    void retriedItemCreationIsReplayedWithoutCallingService() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String first = createItem(owner.getId(), key)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String second = createItem(owner.getId(), key)
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HeaderConstants.IDEMPOTENT_REPLAYED, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, second);
+        verify(itemService, times(1)).createItem(eq(owner.getId()), any());
+    }
+
+    @Test
+    void retriedBookingIsReplayedWithoutCallingService() throws Exception {
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, List.of()));
+        BookingDto booking = new BookingDto();
+        booking.setItemId(item.getId());
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        String key = UUID.randomUUID().toString();
+
+        String first = perform("/bookings", booker.getId(), key, booking)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String second = perform("/bookings", booker.getId(), key, booking)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, second);
+        verify(bookingService, times(1)).createBooking(eq(booker.getId()), any());
+    }
+
+    @Test
+    void keysAreScopedPerUser() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String forOwner = createItem(owner.getId(), key).andReturn().getResponse().getContentAsString();
+        String forBooker = createItem(booker.getId(), key)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(HeaderConstants.IDEMPOTENT_REPLAYED))
+                .andReturn().getResponse().getContentAsString();
+
+        assertNotEquals(forOwner, forBooker);
+    }
+
+    @Test
+    void failedRequestReleasesKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        createItem(Long.MAX_VALUE, key).andExpect(status().isNotFound());
+
+        assertTrue(idempotencyStore.tryReserve(Long.MAX_VALUE, key, FINGERPRINT));
+        idempotencyStore.release(Long.MAX_VALUE, key);
+    }
+
+    @Test
+    void keyInProgressIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(DRILL);
+        idempotencyStore.tryReserve(owner.getId(), key, new RequestFingerprint("POST", "/items",
+                HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)))));
+
+        createItem(owner.getId(), key).andExpect(status().isConflict());
+        idempotencyStore.release(owner.getId(), key);
+    }
+
+    @Test
+    void keyReusedWithDifferentBodyIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        createItem(owner.getId(), key).andExpect(status().isCreated());
+
+        perform("/items", owner.getId(), key, new ItemDto(null, "saw", "hand saw", true, null))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(HeaderConstants.IDEMPOTENT_REPLAYED));
+        verify(itemService, times(1)).createItem(eq(owner.getId()), any());
+    }
+
+    @Test
+    void keyReusedOnAnotherEndpointIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        createItem(owner.getId(), key).andExpect(status().isCreated());
+
+        perform("/bookings", owner.getId(), key, DRILL).andExpect(status().isUnprocessableEntity());
+        verify(bookingService, never()).createBooking(eq(owner.getId()), any());
+    }
+
+    @Test
+    void keyInProgressForAnotherRequestIsRejectedAsMismatch() throws Exception {
+        String key = UUID.randomUUID().toString();
+        idempotencyStore.tryReserve(owner.getId(), key, FINGERPRINT);
+
+        createItem(owner.getId(), key).andExpect(status().isUnprocessableEntity());
+        idempotencyStore.release(owner.getId(), key);
+    }
+
+    private ResultActions createItem(Long userId, String key) throws Exception {
+        return perform("/items", userId, key, DRILL);
+    }
+
+    private ResultActions perform(String path, Long userId, String key, Object body) throws Exception {
+        return mockMvc.perform(post(path)
+                .header(HeaderConstants.X_SHARER_USER_ID, userId)
+                .header(HeaderConstants.IDEMPOTENCY_KEY, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.idempotency.dto.IdempotencyRecord;
+import ru.practicum.shareit.idempotency.dto.RequestFingerprint;
+import ru.practicum.shareit.idempotency.dto.StoredResponse;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.idempotency.store=jdbc")
+class JdbcIdempotencyStoreTests {
+    private static final RequestFingerprint REQUEST = new RequestFingerprint("POST", "/items", "ab12");
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keyIsReservedOnceAndStoresResponse() {
+        assertInstanceOf(JdbcIdempotencyStore.class, idempotencyStore);
+        String key = UUID.randomUUID().toString();
+
+        assertTrue(idempotencyStore.tryReserve(1L, key, REQUEST));
+        assertFalse(idempotencyStore.tryReserve(1L, key, REQUEST));
+        assertEquals(new IdempotencyRecord(REQUEST, null), idempotencyStore.find(1L, key));
+
+        StoredResponse response = new StoredResponse(201, "application/json", "{\"id\":1,\"name\":\"дрель\"}");
+        idempotencyStore.complete(1L, key, response);
+
+        assertEquals(new IdempotencyRecord(REQUEST, response), idempotencyStore.find(1L, key));
+        assertTrue(idempotencyStore.tryReserve(2L, key, REQUEST));
+    }
+
+    @Test
+    void releasedAndExpiredKeysCanBeReusedAndArePurged() {
+        String key = UUID.randomUUID().toString();
+        assertTrue(idempotencyStore.tryReserve(1L, key, REQUEST));
+        idempotencyStore.release(1L, key);
+        assertNull(idempotencyStore.find(1L, key));
+        assertTrue(idempotencyStore.tryReserve(1L, key, REQUEST));
+        idempotencyStore.complete(1L, key, new StoredResponse(201, "application/json", "{}"));
+
+        jdbcTemplate.update("UPDATE idempotency_keys SET created_at = ? WHERE idempotency_key = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(2)), key);
+        assertNull(idempotencyStore.find(1L, key));
+
+        ((JdbcIdempotencyStore) idempotencyStore).purgeExpired();
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = ?", Integer.class, key));
+    }
+}
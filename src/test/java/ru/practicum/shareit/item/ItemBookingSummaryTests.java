@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+class ItemBookingSummaryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User owner;
+    private User booker;
+    private Long itemId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = userRepository.save(new User(null, "owner", "summary-owner-" + System.nanoTime() + "@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "summary-booker-" + System.nanoTime() + "@mail.ru"));
+        itemId = itemService.createItem(owner.getId(), new ItemDto(null, "item", "description", true, null)).getId();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void nextBookingFollowsCreatedAndRejectedBookings() throws Exception {
+        assertNull(itemService.getItemById(owner.getId(), itemId).getNextBooking());
+
+        BookingDto later = book(now.plusDays(5));
+        assertEquals(later.getStart(), itemService.getItemById(owner.getId(), itemId).getNextBooking());
+
+        BookingDto sooner = book(now.plusDays(2));
+        book(now.plusDays(8));
+        assertEquals(sooner.getStart(), itemService.getItemById(owner.getId(), itemId).getNextBooking());
+
+        bookingService.approveBooking(owner.getId(), sooner.getId(), false);
+        assertEquals(later.getStart(), itemService.getItemById(owner.getId(), itemId).getNextBooking());
+
+        bookingService.approveBooking(owner.getId(), later.getId(), true);
+        assertEquals(later.getStart(), itemService.getItemById(owner.getId(), itemId).getNextBooking());
+    }
+
+    @Test
+    void staleSummaryIsRecomputedOnReadAndBySchedule() {
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        Booking started = bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1),
+                item, booker, State.APPROVED));
+        Booking upcoming = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2),
+                item, booker, State.WAITING));
+        summaryRepository.save(new ItemBookingSummary(itemId, null, started.getStart()));
+
+        assertEquals(upcoming.getStart(), itemService.getItemsByOwner(owner.getId()).get(0).getNextBooking());
+
+        summaryRepository.save(new ItemBookingSummary(itemId, null, started.getStart()));
+        summaryService.refreshStale();
+
+        ItemBookingSummary summary = summaryRepository.findById(itemId).orElseThrow();
+        assertEquals(started.getStart(), summary.getLastBooking());
+        assertEquals(upcoming.getStart(), summary.getNextBooking());
+    }
+
+    // Тест занимает одно из двух соединений пула: чтение с пересчётом должно обойтись вторым
+    @Test
+    void staleSummaryIsRecomputedWithoutSecondConnection() throws Exception {
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        Booking started = bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1),
+                item, booker, State.APPROVED));
+        Booking upcoming = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2),
+                item, booker, State.WAITING));
+        summaryRepository.save(new ItemBookingSummary(itemId, null, started.getStart()));
+
+        try (Connection ignored = dataSource.getConnection()) {
+            assertEquals(upcoming.getStart(), itemService.getItemById(owner.getId(), itemId).getNextBooking());
+        }
+        assertEquals(upcoming.getStart(), summaryRepository.findById(itemId).orElseThrow().getNextBooking());
+    }
+
+    private BookingDto book(LocalDateTime start) throws Exception {
+        BookingDto request = new BookingDto();
+        request.setItemId(itemId);
+        request.setStart(start);
+        request.setEnd(start.plusHours(1));
+        return bookingService.createBooking(booker.getId(), request);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemWithDateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemQueryCountTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void ownerItemsAreProjectedInConstantNumberOfQueries() {
+        User owner = userRepository.save(new User(null, "owner", "items-owner-" + System.nanoTime() + "@mail.ru"));
+        for (int i = 0; i < 10; i++) {
+            User author = userRepository.save(new User(null, "author" + i, "author-" + System.nanoTime() + "@mail.ru"));
+            Item item = itemRepository.save(new Item(null, "item" + i, "description", true, owner, List.of()));
+            commentRepository.save(new Comment(null, "comment", item, author, LocalDateTime.now()));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemWithDateDto> items = itemService.getItemsByOwner(owner.getId());
+
+        assertEquals(10, items.size());
+        items.forEach(item -> assertEquals(1, item.getComments().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
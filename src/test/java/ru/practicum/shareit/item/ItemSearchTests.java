@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemSearchTests {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private String tag;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "search-owner-" + System.nanoTime() + "@mail.ru"));
+        tag = "метка" + System.nanoTime();
+    }
+
+    @Test
+    void queryTokensMatchByPrefixAndAllMustMatch() throws Exception {
+        ItemDto drill = create("Дрель ударная", "инструмент " + tag);
+        create("Отвертка", "инструмент " + tag);
+
+        assertEquals(List.of(drill.getId()), search("ДРЕ " + tag.substring(0, tag.length() - 3)));
+        assertEquals(2, search(tag).size());
+    }
+
+    @Test
+    void updatesReplaceIndexedTokens() throws Exception {
+        ItemDto item = create("Дрель", tag);
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Перфоратор", null, null, null));
+
+        assertEquals(List.of(), search("дрель " + tag));
+        assertEquals(List.of(item.getId()), search("перфоратор " + tag));
+    }
+
+    @Test
+    void unavailableItemsAreNotFound() throws Exception {
+        ItemDto item = create("Дрель", tag);
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, null, null, false, null));
+
+        assertEquals(List.of(), search(tag));
+    }
+
+    @Test
+    void rolledBackUpdateDoesNotReachIndex() throws Exception {
+        ItemDto item = create("Дрель", tag);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Болгарка", null, null, null));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), search("болгарка " + tag));
+        assertEquals(List.of(item.getId()), search("дрель " + tag));
+    }
+
+    private ItemDto create(String name, String description) throws Exception {
+        return itemService.createItem(owner.getId(), new ItemDto(null, name, description, true, null));
+    }
+
+    private List<Long> search(String text) {
+        return itemService.searchItems(text).stream().map(ItemDto::getId).toList();
+    }
+}
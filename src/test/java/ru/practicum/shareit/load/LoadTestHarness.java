@@ -0,0 +1,188 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный прогон: поднимает приложение на платформенных и на виртуальных потоках,
+ * нагружает каждое заданным числом одновременных клиентов и печатает пропускную способность и перцентили.
+ * Перед замером каждый режим прогревается, результаты прогрева отбрасываются.
+ * Запуск: {@code mvn -Pload verify -Dload.clients=1000 -Dload.duration=30 -Dload.warmup=10}.
+ */
+public class LoadTestHarness {
+
+    private static final int USERS = 1_000;
+    private static final int ITEMS = 10_000;
+    private static final int BOOKINGS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 1000);
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+        Path report = Path.of(System.getProperty("load.report", "target/load-test.csv"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            results.add(run(virtualThreads, clients, warmup, duration));
+        }
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report))) {
+            writer.println("mode,clients,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms");
+            results.forEach(result -> writer.println(result.toCsv()));
+        }
+        System.out.println("mode,clients,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms");
+        results.forEach(result -> System.out.println(result.toCsv()));
+    }
+
+    private static Result run(boolean virtualThreads, int clients, Duration warmup, Duration duration) throws InterruptedException {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--shareit.rate-limit.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")) {
+            seed(context.getBean(JdbcTemplate.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            load(mode, baseUrl, clients, warmup);
+            return load(mode, baseUrl, clients, duration);
+        }
+    }
+
+    private static Result load(String mode, String baseUrl, int clients, Duration duration) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[clients][];
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int index = client;
+                executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(nextRequest(baseUrl),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        recorder.record(System.nanoTime() - started);
+                    }
+                    latencies[index] = recorder.toArray();
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        }
+
+        long[] all = Arrays.stream(latencies)
+                .filter(array -> array != null)
+                .flatMapToLong(Arrays::stream)
+                .sorted()
+                .toArray();
+        return new Result(mode, clients, all.length, errors.get(), all.length / (double) duration.toSeconds(),
+                percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1]);
+    }
+
+    private static HttpRequest nextRequest(String baseUrl) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = random.nextLong(1, USERS + 1);
+        String path = switch (random.nextInt(4)) {
+            case 0 -> "/items/" + random.nextLong(1, ITEMS + 1);
+            case 1 -> "/items";
+            case 2 -> "/bookings/owner?state=FUTURE";
+            default -> "/bookings?state=PAST";
+        };
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header(HeaderConstants.X_SHARER_USER_ID, String.valueOf(userId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) "
+                + "SELECT x, 'user' || x, 'user' || x || '@mail.ru' FROM SYSTEM_RANGE(1, ?)", USERS);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) "
+                + "SELECT x, 'item ' || x, 'description', TRUE, MOD(x, ?) + 1 FROM SYSTEM_RANGE(1, ?)", USERS, ITEMS);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT x, DATEADD('HOUR', MOD(x * 7919, 48000) - 24000, LOCALTIMESTAMP), "
+                + "DATEADD('HOUR', MOD(x * 7919, 48000) - 24000 + MOD(x, 72) + 1, LOCALTIMESTAMP), "
+                + "MOD(x, ?) + 1, MOD(x * 31, ?) + 1, 'APPROVED' FROM SYSTEM_RANGE(1, ?)", ITEMS, USERS, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO item_booking_summary (item_id, last_booking, next_booking) "
+                + "SELECT i.id, "
+                + "(SELECT MAX(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status <> 'REJECTED' "
+                + "AND b.start_date <= LOCALTIMESTAMP), "
+                + "(SELECT MIN(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status <> 'REJECTED' "
+                + "AND b.start_date > LOCALTIMESTAMP) "
+                + "FROM items i");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static final class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private record Result(String mode, int clients, long requests, long errors, double throughput,
+                          double p50Nanos, double p99Nanos, double maxNanos) {
+
+        String toCsv() {
+            return String.format(java.util.Locale.ROOT, "%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f", mode, clients, requests,
+                    errors, throughput, p50Nanos / 1_000_000, p99Nanos / 1_000_000, maxNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void recordsServiceTimerAndJdbcStatementsPerRequest() throws Exception {
+        User user = userRepository.save(new User(null, "user", "metrics-" + System.nanoTime() + "@mail.ru"));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .param("state", "FUTURE")
+                        .header(HeaderConstants.X_SHARER_USER_ID, user.getId()))
+                .andExpect(status().isOk());
+
+        Timer serviceTimer = meterRegistry.find(ServiceMetricsAspect.SERVICE_CALLS)
+                .tags("class", "BookingServiceImpl", "method", "getBookingsForOwner", "state", "FUTURE",
+                        "outcome", "success")
+                .timer();
+        assertNotNull(serviceTimer);
+        assertTrue(serviceTimer.count() >= 1);
+
+        DistributionSummary statements = meterRegistry.find(JdbcMetricsFilter.STATEMENTS)
+                .tags("method", "GET", "uri", "/bookings/owner", "status", "200")
+                .summary();
+        assertNotNull(statements);
+        assertTrue(statements.totalAmount() >= 1);
+        assertNotNull(meterRegistry.find(JdbcMetricsFilter.DURATION).tags("uri", "/bookings/owner").timer());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_service_calls_seconds_bucket")))
+                .andExpect(content().string(containsString("shareit_http_jdbc_statements_count")));
+    }
+
+    @Test
+    void tagsStateCaseInsensitively() throws Exception {
+        User user = userRepository.save(new User(null, "user", "metrics-case-" + System.nanoTime() + "@mail.ru"));
+
+        mockMvc.perform(get("/bookings")
+                        .param("state", "future")
+                        .header(HeaderConstants.X_SHARER_USER_ID, user.getId()))
+                .andExpect(status().isOk());
+
+        assertNotNull(meterRegistry.find(ServiceMetricsAspect.SERVICE_CALLS)
+                .tags("class", "BookingServiceImpl", "method", "getAllBookings", "state", "FUTURE")
+                .timer());
+    }
+}
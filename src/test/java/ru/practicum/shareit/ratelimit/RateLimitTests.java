@@ -0,0 +1,98 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.rate-limit.budgets.search.capacity=2",
+        "shareit.rate-limit.budgets.search.refill-per-second=0.1"
+})
+@AutoConfigureMockMvc
+class RateLimitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void searchBudgetIsEnforcedPerUser() throws Exception {
+        double rejectedBefore = decisions("search", "rejected");
+
+        search(1001L).andExpect(status().isOk());
+        search(1001L).andExpect(status().isOk());
+        search(1001L)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+        search(1002L).andExpect(status().isOk());
+
+        assertEquals(rejectedBefore + 1, decisions("search", "rejected"));
+    }
+
+    @Test
+    void malformedUserIdFallsBackToClientAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            search("junk-" + i, "10.0.0.7").andExpect(status().isOk());
+        }
+        search("junk-2", "10.0.0.7").andExpect(status().isTooManyRequests());
+        search("junk-3", "10.0.0.8").andExpect(status().isOk());
+    }
+
+    @Test
+    void otherEndpointsUseDefaultBudget() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/items").header(HeaderConstants.X_SHARER_USER_ID, 1003L))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void bucketRefillsOverTime() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(second, bucket.tryAcquire(0));
+        assertEquals(second / 2, bucket.tryAcquire(second / 2));
+        assertEquals(0, bucket.tryAcquire(second));
+        assertEquals(0, bucket.tryAcquire(10 * second));
+        assertEquals(0, bucket.tryAcquire(10 * second));
+        assertEquals(second, bucket.tryAcquire(10 * second));
+    }
+
+    private ResultActions search(Long userId) throws Exception {
+        return mockMvc.perform(get("/items/search")
+                .param("text", "drill")
+                .header(HeaderConstants.X_SHARER_USER_ID, userId));
+    }
+
+    private ResultActions search(String userId, String remoteAddress) throws Exception {
+        return mockMvc.perform(get("/items/search")
+                .param("text", "drill")
+                .header(HeaderConstants.X_SHARER_USER_ID, userId)
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                }));
+    }
+
+    private double decisions(String budget, String outcome) {
+        return meterRegistry.counter(RateLimiter.DECISIONS, "budget", budget, "outcome", outcome).count();
+    }
+}
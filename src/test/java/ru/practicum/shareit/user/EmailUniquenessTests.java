@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.user.email.EmailBloomFilter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class EmailUniquenessTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@mail.ru"));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i + "@mail.ru")));
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("other" + i + "@mail.ru"))
+                .count();
+        assertTrue(falsePositives < 300, "ложных срабатываний: " + falsePositives);
+    }
+
+    @Test
+    void newEmailIsInsertedWithoutLookupQuery() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        createUser("fresh-" + System.nanoTime() + "@mail.ru").andExpect(status().isCreated());
+
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void knownEmailIsRejectedWithConflict() throws Exception {
+        String email = "known-" + System.nanoTime() + "@mail.ru";
+        createUser(email).andExpect(status().isCreated());
+
+        createUser(email)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email уже существует"));
+    }
+
+    @Test
+    void emailUnknownToFilterIsCaughtByUniqueConstraint() throws Exception {
+        String email = "other-node-" + System.nanoTime() + "@mail.ru";
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('other node', ?)", email);
+
+        createUser(email)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email уже существует"));
+
+        User user = userRepository.save(new User(null, "user", "rename-" + System.nanoTime() + "@mail.ru"));
+        mockMvc.perform(patch("/users/{userId}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email уже существует"));
+    }
+
+    private ResultActions createUser(String email) throws Exception {
+        return mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"user\",\"email\":\"" + email + "\"}"));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserCacheTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repeatedItemReadsHitSecondLevelCache() {
+        User owner = userRepository.save(new User(null, "owner", "cache-owner-" + System.nanoTime() + "@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "drill", "description", true, owner, List.of()));
+        entityManagerFactory.getCache().evict(Item.class, item.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        itemRepository.findById(item.getId()).orElseThrow();
+        itemRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void creatingItemKeepsUnrelatedCacheEntries() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "create-owner-" + System.nanoTime() + "@mail.ru"));
+        User other = userRepository.save(new User(null, "other", "create-other-" + System.nanoTime() + "@mail.ru"));
+        Item cached = itemRepository.save(new Item(null, "saw", "description", true, other, List.of()));
+        userRepository.findById(other.getId()).orElseThrow();
+        itemRepository.findById(cached.getId()).orElseThrow();
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(User.class, other.getId()));
+        assertTrue(cache.contains(Item.class, cached.getId()));
+
+        itemService.createItem(owner.getId(), new ItemDto(null, "drill", "description", true, null));
+
+        assertTrue(cache.contains(User.class, other.getId()));
+        assertTrue(cache.contains(Item.class, cached.getId()));
+    }
+
+    @Test
+    void deletingUserEvictsOnlyTheirItems() {
+        User owner = userRepository.save(new User(null, "owner", "deleted-owner-" + System.nanoTime() + "@mail.ru"));
+        User other = userRepository.save(new User(null, "other", "other-owner-" + System.nanoTime() + "@mail.ru"));
+        Item owned = itemRepository.save(new Item(null, "drill", "description", true, owner, List.of()));
+        Item kept = itemRepository.save(new Item(null, "saw", "description", true, other, List.of()));
+        itemRepository.findById(owned.getId()).orElseThrow();
+        itemRepository.findById(kept.getId()).orElseThrow();
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(Item.class, owned.getId()));
+        assertTrue(cache.contains(Item.class, kept.getId()));
+
+        userService.deleteUser(owner.getId());
+
+        assertFalse(cache.contains(Item.class, owned.getId()));
+        assertTrue(cache.contains(Item.class, kept.getId()));
+        assertFalse(itemRepository.findById(owned.getId()).isPresent());
+    }
+
+    @Test
+    void readBeforeDeleteCommitsDoesNotLeaveStaleItemCached() {
+        User owner = userRepository.save(new User(null, "owner", "racing-owner-" + System.nanoTime() + "@mail.ru"));
+        Item owned = itemRepository.save(new Item(null, "drill", "description", true, owner, List.of()));
+        Cache cache = entityManagerFactory.getCache();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.deleteUser(owner.getId());
+            cache.evict(Item.class, owned.getId());
+            // Параллельная транзакция ещё видит вещь и кладёт её в кэш до коммита удаления
+            CompletableFuture.runAsync(() -> itemRepository.findById(owned.getId()).orElseThrow()).join();
+            assertTrue(cache.contains(Item.class, owned.getId()));
+        });
+
+        assertFalse(cache.contains(Item.class, owned.getId()));
+        assertFalse(itemRepository.findById(owned.getId()).isPresent());
+    }
+}
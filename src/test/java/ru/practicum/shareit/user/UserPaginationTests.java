@@ -0,0 +1,146 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.HeaderConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.pagination.default-size=10"
+})
+@AutoConfigureMockMvc
+class UserPaginationTests {
+
+    private static final int USERS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        ids = userRepository.saveAll(IntStream.range(0, USERS)
+                        .mapToObj(i -> new User(null, "user" + i, "page-" + suffix + "-" + i + "@mail.ru"))
+                        .toList())
+                .stream()
+                .map(User::getId)
+                .toList();
+    }
+
+    @Test
+    void keysetPagesWalkAllUsersWithoutCountQuery() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> seen = new ArrayList<>();
+        String cursor = String.valueOf(ids.get(0) - 1);
+        while (cursor != null) {
+            statistics.clear();
+            MockHttpServletResponse response = mockMvc.perform(get("/users")
+                            .param("cursor", cursor)
+                            .param("size", "10"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            assertEquals(1, statistics.getPrepareStatementCount());
+            List<UserDto> page = read(response.getContentAsString());
+            assertTrue(page.size() <= 10);
+            page.forEach(user -> seen.add(user.getId()));
+            cursor = response.getHeader(HeaderConstants.X_NEXT_CURSOR);
+        }
+        assertEquals(ids, seen);
+    }
+
+    @Test
+    void pageParameterReturnsSliceWithoutNextOnLastPage() throws Exception {
+        long total = userRepository.count();
+        int size = 10;
+        int lastPage = (int) ((total - 1) / size);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/users")
+                        .param("page", String.valueOf(lastPage))
+                        .param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        List<UserDto> page = read(response.getContentAsString());
+        assertEquals(total - (long) lastPage * size, page.size());
+        assertEquals(ids.get(USERS - 1), page.get(page.size() - 1).getId());
+        assertNull(response.getHeader(HeaderConstants.X_NEXT_CURSOR));
+    }
+
+    @Test
+    void unpagedRequestIsCappedAtDefaultSizeWithNextCursor() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        List<UserDto> page = read(response.getContentAsString());
+        assertEquals(10, page.size());
+        assertEquals(String.valueOf(page.get(9).getId()), response.getHeader(HeaderConstants.X_NEXT_CURSOR));
+    }
+
+    @Test
+    void exportStreamsEveryUserAsNdjson() throws Exception {
+        MvcResult async = mockMvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<Long> exported = body.lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, UserDto.class).getId();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertEquals(userRepository.count(), exported.size());
+        assertTrue(exported.containsAll(ids));
+    }
+
+    private List<UserDto> read(String body) throws Exception {
+        return objectMapper.readValue(body, new TypeReference<>() {
+        });
+    }
+}